@@ -0,0 +1,44 @@
+package org.vaadin.erik.benchmarks;
+
+import com.github.mvysny.kaributesting.v10.MockVaadin;
+import com.vaadin.flow.component.UI;
+
+/**
+ * Sets up a mocked UI, session and service for the current thread, so that components can be attached and
+ * toggled without a browser or servlet container.
+ */
+final class MockedUI {
+
+    /**
+     * The number of operations after which pending client calls are flushed, to keep them from piling up in the
+     * mocked UI during an iteration
+     */
+    static final int ROUNDTRIP_INTERVAL = 256;
+
+    private MockedUI() {
+    }
+
+    /**
+     * Sets up a mocked UI for the current thread
+     *
+     * @return the mocked UI
+     */
+    static UI setUp() {
+        MockVaadin.setup();
+        return UI.getCurrent();
+    }
+
+    /**
+     * Simulates a client round trip, running pending UI access tasks and dropping pending client calls
+     */
+    static void roundtrip() {
+        MockVaadin.clientRoundtrip();
+    }
+
+    /**
+     * Tears down the mocked UI of the current thread
+     */
+    static void tearDown() {
+        MockVaadin.tearDown();
+    }
+}
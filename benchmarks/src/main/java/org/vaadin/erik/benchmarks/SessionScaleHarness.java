@@ -0,0 +1,194 @@
+package org.vaadin.erik.benchmarks;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.vaadin.erik.SlideTab;
+import org.vaadin.erik.SlideTabBuilder;
+import org.vaadin.erik.SlideTabSpec;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.Paragraph;
+import com.vaadin.flow.server.VaadinSession;
+
+/**
+ * Creates a large number of UIs with SlideTabs in a single JVM, toggles and schedules them, and reports the retained
+ * heap, live threads and garbage collection caused per SlideTab.
+ * <p>
+ * Configured with system properties:
+ * <ul>
+ *     <li>{@code uis}: the number of UIs, default 1000</li>
+ *     <li>{@code tabs}: the number of SlideTabs per UI, default 40</li>
+ *     <li>{@code toggles}: the number of times each tab is toggled, default 10</li>
+ *     <li>{@code lazy}: true to create the content with a supplier, default false</li>
+ *     <li>{@code spec}: true to create the tabs from a shared {@link SlideTabSpec}, default false</li>
+ *     <li>{@code maxHeapPerTab}: fails if more bytes are retained per tab, default no limit</li>
+ *     <li>{@code maxThreadsPerTab}: fails if more threads are started per tab, default no limit</li>
+ * </ul>
+ * The process exits with status 1 if a limit is exceeded, so it can be used as a regression gate:
+ * <pre>
+ * java -Duis=1000 -Dtabs=40 -DmaxHeapPerTab=8192 -DmaxThreadsPerTab=0.01 -cp target/benchmarks.jar org.vaadin.erik.benchmarks.SessionScaleHarness
+ * </pre>
+ */
+public class SessionScaleHarness {
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final int uiCount = Integer.getInteger("uis", 1000);
+    private final int tabsPerUi = Integer.getInteger("tabs", 40);
+    private final int toggles = Integer.getInteger("toggles", 10);
+    private final boolean lazy = Boolean.getBoolean("lazy");
+    private final SlideTabSpec spec = Boolean.getBoolean("spec") ?
+            new SlideTabBuilder(new Div()).listener(event -> { }).buildSpec() : null;
+
+    private final List<UI> uis = new ArrayList<>();
+    private final List<SlideTab> slideTabs = new ArrayList<>();
+
+    public static void main(String[] args) {
+        MockedUI.setUp();
+        boolean passed;
+        try {
+            passed = new SessionScaleHarness().run();
+        } finally {
+            MockedUI.tearDown();
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private boolean run() {
+        VaadinSession session = VaadinSession.getCurrent();
+        int totalTabs = uiCount * tabsPerUi;
+
+        long heapBefore = usedHeap();
+        for (int i = 0; i < uiCount; i++) {
+            UI ui = new UI();
+            ui.getInternals().setSession(session);
+            uis.add(ui);
+        }
+        long heapWithUis = usedHeap();
+        int threadsBefore = THREADS.getThreadCount();
+
+        for (UI ui : uis) {
+            for (int i = 0; i < tabsPerUi; i++) {
+                SlideTab slideTab = createSlideTab(i);
+                ui.add(slideTab);
+                slideTabs.add(slideTab);
+            }
+            roundtrip(ui);
+        }
+        long heapWithTabs = usedHeap();
+
+        // Scheduled far in the future, so that the pending tasks are part of the retained state
+        slideTabs.forEach(slideTab -> slideTab.scheduleCollapse(Integer.MAX_VALUE));
+        long heapWithSchedules = usedHeap();
+        int threadsAfter = THREADS.getThreadCount();
+
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcTime();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < toggles; i++) {
+            slideTabs.forEach(SlideTab::toggle);
+            uis.forEach(SessionScaleHarness::roundtrip);
+        }
+        long toggleNanos = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+        long gcCount = gcCount() - gcCountBefore;
+        long gcTime = gcTime() - gcTimeBefore;
+
+        slideTabs.forEach(SlideTab::cancelScheduledTask);
+
+        double heapPerTab = (double) (heapWithTabs - heapWithUis) / totalTabs;
+        double heapPerSchedule = (double) (heapWithSchedules - heapWithTabs) / totalTabs;
+        double threadsPerTab = (double) (threadsAfter - threadsBefore) / totalTabs;
+        long totalToggles = (long) totalTabs * toggles;
+
+        System.out.printf(Locale.ROOT,
+                "UIs: %d, tabs per UI: %d, toggles per tab: %d, lazy content: %b, spec: %b%n", uiCount, tabsPerUi, toggles, lazy, spec != null);
+        System.out.printf(Locale.ROOT, "Heap per UI without tabs:   %,.0f bytes%n",
+                (double) (heapWithUis - heapBefore) / uiCount);
+        System.out.printf(Locale.ROOT, "Heap per tab:               %,.0f bytes%n", heapPerTab);
+        System.out.printf(Locale.ROOT, "Heap per scheduled task:    %,.0f bytes%n", heapPerSchedule);
+        System.out.printf(Locale.ROOT, "Threads started:            %d (%.4f per tab)%n",
+                threadsAfter - threadsBefore, threadsPerTab);
+        System.out.printf(Locale.ROOT, "Time per toggle:            %,.0f ns%n", (double) toggleNanos / totalToggles);
+        if (allocatedBefore >= 0) {
+            System.out.printf(Locale.ROOT, "Allocated per toggle:       %,.0f bytes%n",
+                    (double) allocated / totalToggles);
+        }
+        System.out.printf(Locale.ROOT, "GC while toggling:          %d collections, %d ms%n", gcCount, gcTime);
+
+        boolean passed = checkLimit("maxHeapPerTab", heapPerTab);
+        passed &= checkLimit("maxThreadsPerTab", threadsPerTab);
+        return passed;
+    }
+
+    private SlideTab createSlideTab(int index) {
+        if (spec != null) {
+            return lazy ?
+                    spec.create(SessionScaleHarness::createContent, "Tab " + index) :
+                    spec.create(createContent(), "Tab " + index);
+        }
+        SlideTabBuilder builder = lazy ?
+                SlideTabBuilder.lazy(SessionScaleHarness::createContent, "Tab " + index) :
+                new SlideTabBuilder(createContent(), "Tab " + index);
+        return builder.listener(event -> { }).build();
+    }
+
+    private static Div createContent() {
+        return new Div(new Paragraph("Content"));
+    }
+
+    /**
+     * Simulates a response to the client, so that pending changes and client calls do not pile up
+     */
+    private static void roundtrip(UI ui) {
+        ui.getInternals().getStateTree().runExecutionsBeforeClientResponse();
+        ui.getInternals().getStateTree().collectChanges(change -> { });
+        ui.getInternals().dumpPendingJavaScriptInvocations();
+    }
+
+    private static boolean checkLimit(String property, double value) {
+        String limit = System.getProperty(property);
+        if (limit != null && value > Double.parseDouble(limit)) {
+            System.out.printf(Locale.ROOT, "FAILED: %s is %.4f, limit is %s%n", property, value, limit);
+            return false;
+        }
+        return true;
+    }
+
+    private static long usedHeap() {
+        // Several rounds, as a single call is only a hint and may leave garbage behind
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcTime() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+
+    /**
+     * Returns the bytes allocated by the current thread, or -1 if the JVM does not support measuring it
+     */
+    private static long allocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,74 @@
+package org.vaadin.erik.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vaadin.erik.SlideMode;
+import org.vaadin.erik.SlideTab;
+import org.vaadin.erik.SlideTabBuilder;
+import org.vaadin.erik.SlideTabPosition;
+import org.vaadin.erik.SlideTabSpec;
+
+import com.vaadin.flow.component.html.Div;
+
+/**
+ * Measures creating SlideTabs through the builder, and from a {@link SlideTabSpec} built once for the same
+ * configuration
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SlideTabBuildBenchmark {
+
+    private SlideTabSpec configuredSpec;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        configuredSpec = configuredBuilder().buildSpec();
+    }
+
+    @Benchmark
+    public SlideTab buildDefault() {
+        return new SlideTabBuilder(new Div(), "Caption").build();
+    }
+
+    @Benchmark
+    public SlideTab buildConfigured() {
+        return configuredBuilder().build();
+    }
+
+    @Benchmark
+    public SlideTab createConfiguredFromSpec() {
+        return configuredSpec.create(new Div(), "Caption");
+    }
+
+    @Benchmark
+    public SlideTab buildLazy() {
+        return SlideTabBuilder.lazy(Div::new, "Caption").build();
+    }
+
+    private static SlideTabBuilder configuredBuilder() {
+        return new SlideTabBuilder(new Div(), "Caption")
+                .mode(SlideMode.RIGHT)
+                .tabPosition(SlideTabPosition.END)
+                .animationDuration(300)
+                .fixedContentSize(200)
+                .autoCollapseSlider(true)
+                .zIndex(5)
+                .style("first", "second")
+                .listener(event -> { });
+    }
+}
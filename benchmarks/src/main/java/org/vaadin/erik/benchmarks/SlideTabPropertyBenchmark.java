@@ -0,0 +1,74 @@
+package org.vaadin.erik.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vaadin.erik.SlideTab;
+import org.vaadin.erik.SlideTabBuilder;
+import org.vaadin.erik.SlideTabPosition;
+
+import com.vaadin.flow.component.html.Div;
+
+/**
+ * Measures the setters that are typically called repeatedly on an attached SlideTab
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SlideTabPropertyBenchmark {
+
+    private static final SlideTabPosition[] POSITIONS = SlideTabPosition.values();
+
+    private SlideTab slideTab;
+    private int operations;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        slideTab = new SlideTabBuilder(new Div(), "Caption").build();
+        MockedUI.setUp().add(slideTab);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        MockedUI.tearDown();
+    }
+
+    @Benchmark
+    public void setTabPosition() {
+        slideTab.setTabPosition(POSITIONS[operations % POSITIONS.length]);
+        flushPeriodically();
+    }
+
+    @Benchmark
+    public void setTabPositionUnchanged() {
+        slideTab.setTabPosition(SlideTabPosition.MIDDLE);
+        flushPeriodically();
+    }
+
+    @Benchmark
+    public void setAnimationDuration() {
+        // Alternate, so that the duration actually changes
+        slideTab.setAnimationDuration((operations & 1) == 0 ? 300 : 500);
+        flushPeriodically();
+    }
+
+    private void flushPeriodically() {
+        if (++operations % MockedUI.ROUNDTRIP_INTERVAL == 0) {
+            MockedUI.roundtrip();
+        }
+    }
+}
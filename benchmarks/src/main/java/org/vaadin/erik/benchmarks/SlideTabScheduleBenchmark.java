@@ -0,0 +1,93 @@
+package org.vaadin.erik.benchmarks;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vaadin.erik.SlideTab;
+import org.vaadin.erik.SlideTabBuilder;
+import org.vaadin.erik.SlideTabScheduler;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.html.Div;
+
+/**
+ * Measures scheduling SlideTab state changes, and dispatching them to the UI.
+ * <p>
+ * {@link #dispatch()} uses a scheduler that runs the task right away, so it measures the path from a due task to the
+ * state change in the UI without any waiting. {@link #scheduleAndCancel()} uses the shared scheduler with a delay
+ * that never passes, so it measures the cost of replacing a pending task. {@link #dispatchBatch()} makes the tasks
+ * of {@value #BATCH_SIZE} tabs due together, which are run in a single UI access.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SlideTabScheduleBenchmark {
+
+    private static final SlideTabScheduler IMMEDIATE = (task, delayMillis) -> {
+        task.run();
+        return CompletableFuture.completedFuture(null);
+    };
+
+    private static final int BATCH_SIZE = 20;
+
+    private SlideTab immediateTab;
+    private SlideTab delayedTab;
+    private SlideTab[] batchTabs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        immediateTab = new SlideTabBuilder(new Div(), "Immediate").build();
+        immediateTab.setScheduler(IMMEDIATE);
+        delayedTab = new SlideTabBuilder(new Div(), "Delayed").build();
+        batchTabs = new SlideTab[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batchTabs[i] = new SlideTabBuilder(new Div(), "Batch " + i).build();
+            batchTabs[i].setScheduler(IMMEDIATE);
+        }
+        UI ui = MockedUI.setUp();
+        ui.add(immediateTab, delayedTab);
+        ui.add(batchTabs);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        delayedTab.cancelScheduledTask();
+        MockedUI.tearDown();
+    }
+
+    @Benchmark
+    public void dispatch() {
+        immediateTab.scheduleToggle(0);
+        // Runs the UI access queued by the task
+        MockedUI.roundtrip();
+    }
+
+    @Benchmark
+    public void dispatchBatch() {
+        for (SlideTab batchTab : batchTabs) {
+            batchTab.scheduleToggle(0);
+        }
+        // Runs the single UI access shared by all the tasks
+        MockedUI.roundtrip();
+    }
+
+    @Benchmark
+    public void scheduleAndCancel() {
+        delayedTab.scheduleToggle(Integer.MAX_VALUE);
+    }
+}
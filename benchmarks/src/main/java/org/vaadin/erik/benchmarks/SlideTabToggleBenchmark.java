@@ -0,0 +1,82 @@
+package org.vaadin.erik.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.vaadin.erik.SlideTab;
+import org.vaadin.erik.SlideTabBuilder;
+
+import com.vaadin.flow.component.html.Div;
+
+/**
+ * Measures expanding and collapsing an attached SlideTab with a number of toggle listeners
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SlideTabToggleBenchmark {
+
+    @Param({"0", "1", "10"})
+    public int listenerCount;
+
+    private SlideTab slideTab;
+    private Blackhole blackhole;
+    private int operations;
+
+    @Setup(Level.Trial)
+    public void setUp(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        slideTab = new SlideTabBuilder(new Div(), "Caption").build();
+        for (int i = 0; i < listenerCount; i++) {
+            slideTab.addToggleListener(event -> this.blackhole.consume(event.isExpand()));
+        }
+        MockedUI.setUp().add(slideTab);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        MockedUI.tearDown();
+    }
+
+    @Benchmark
+    public void toggle() {
+        slideTab.toggle();
+        flushPeriodically();
+    }
+
+    @Benchmark
+    public void expandCollapse() {
+        slideTab.expand();
+        slideTab.collapse();
+        flushPeriodically();
+    }
+
+    @Benchmark
+    public void expandWhenExpanded() {
+        // Should be a no-op
+        slideTab.expand();
+        flushPeriodically();
+    }
+
+    private void flushPeriodically() {
+        if (++operations % MockedUI.ROUNDTRIP_INTERVAL == 0) {
+            MockedUI.roundtrip();
+        }
+    }
+}
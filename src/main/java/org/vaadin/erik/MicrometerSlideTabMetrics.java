@@ -0,0 +1,134 @@
+package org.vaadin.erik;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Records SlideTab activity in a Micrometer registry. Requires micrometer-core on the classpath.
+ * <p>
+ * The following meters are registered:
+ * <ul>
+ *     <li>{@code slidetab.toggles}: counter tagged with {@code mode}, {@code action} (expand or collapse) and
+ *     {@code origin} (client or server)</li>
+ *     <li>{@code slidetab.outside.clicks}: counter tagged with {@code result} (collapsed or ignored)</li>
+ *     <li>{@code slidetab.tasks}: counter tagged with {@code event} (scheduled, fired or cancelled)</li>
+ *     <li>{@code slidetab.tasks.pending}: gauge of the scheduled tasks that have neither fired nor been cancelled</li>
+ *     <li>{@code slidetab.client.acknowledgement}: timer from an expand or collapse call until the client has
+ *     responded, tagged with {@code function}. Only recorded if enabled in the constructor.</li>
+ * </ul>
+ */
+public class MicrometerSlideTabMetrics implements SlideTabMetrics {
+
+    private final boolean measuringClientAcknowledgement;
+    private final AtomicLong pendingTasks = new AtomicLong();
+
+    // Registered once, so recording an event does not look the meter up in the registry
+    // Indexed by the slide mode, then by expand and by client origin
+    private final Map<SlideMode, Counter[][]> toggles = new EnumMap<>(SlideMode.class);
+    private final Counter outsideClicksCollapsed;
+    private final Counter outsideClicksIgnored;
+    private final Counter tasksScheduled;
+    private final Counter tasksFired;
+    private final Counter tasksCancelled;
+    private final Timer expandAcknowledgement;
+    private final Timer collapseAcknowledgement;
+
+    /**
+     * Creates a binding that does not measure client acknowledgement
+     *
+     * @param registry  the registry to record in
+     */
+    public MicrometerSlideTabMetrics(MeterRegistry registry) {
+        this(registry, Tags.empty(), false);
+    }
+
+    /**
+     * Creates a binding
+     *
+     * @param registry                          the registry to record in
+     * @param tags                              tags added to all meters
+     * @param measuringClientAcknowledgement    true to measure the time until the client responds to expand and
+     *                                          collapse calls
+     */
+    public MicrometerSlideTabMetrics(MeterRegistry registry, Tags tags, boolean measuringClientAcknowledgement) {
+        Objects.requireNonNull(registry, "registry must not be null");
+        Objects.requireNonNull(tags, "tags must not be null");
+        this.measuringClientAcknowledgement = measuringClientAcknowledgement;
+        registry.gauge("slidetab.tasks.pending", tags, pendingTasks);
+
+        for (SlideMode mode : SlideMode.values()) {
+            Counter[][] counters = new Counter[2][2];
+            for (int expand = 0; expand < 2; expand++) {
+                for (int fromClient = 0; fromClient < 2; fromClient++) {
+                    counters[expand][fromClient] = registry.counter("slidetab.toggles", tags.and(
+                            "mode", mode.name(),
+                            "action", expand == 1 ? "expand" : "collapse",
+                            "origin", fromClient == 1 ? "client" : "server"));
+                }
+            }
+            toggles.put(mode, counters);
+        }
+        outsideClicksCollapsed = registry.counter("slidetab.outside.clicks", tags.and("result", "collapsed"));
+        outsideClicksIgnored = registry.counter("slidetab.outside.clicks", tags.and("result", "ignored"));
+        tasksScheduled = registry.counter("slidetab.tasks", tags.and("event", "scheduled"));
+        tasksFired = registry.counter("slidetab.tasks", tags.and("event", "fired"));
+        tasksCancelled = registry.counter("slidetab.tasks", tags.and("event", "cancelled"));
+        if (measuringClientAcknowledgement) {
+            expandAcknowledgement = registry.timer("slidetab.client.acknowledgement", tags.and("function", "expand"));
+            collapseAcknowledgement = registry.timer("slidetab.client.acknowledgement",
+                    tags.and("function", "collapse"));
+        } else {
+            expandAcknowledgement = null;
+            collapseAcknowledgement = null;
+        }
+    }
+
+    @Override
+    public void toggled(SlideTab slideTab, boolean expand, boolean fromClient) {
+        toggles.get(slideTab.getSlideMode())[expand ? 1 : 0][fromClient ? 1 : 0].increment();
+    }
+
+    @Override
+    public void outsideClicked(SlideTab slideTab, boolean ignored) {
+        (ignored ? outsideClicksIgnored : outsideClicksCollapsed).increment();
+    }
+
+    @Override
+    public void taskScheduled(SlideTab slideTab) {
+        pendingTasks.incrementAndGet();
+        tasksScheduled.increment();
+    }
+
+    @Override
+    public void taskFired(SlideTab slideTab) {
+        pendingTasks.decrementAndGet();
+        tasksFired.increment();
+    }
+
+    @Override
+    public void taskCancelled(SlideTab slideTab) {
+        pendingTasks.decrementAndGet();
+        tasksCancelled.increment();
+    }
+
+    @Override
+    public boolean isMeasuringClientAcknowledgement() {
+        return measuringClientAcknowledgement;
+    }
+
+    @Override
+    public void clientAcknowledged(SlideTab slideTab, String function, long nanos) {
+        Timer timer = "expand".equals(function) ? expandAcknowledgement : collapseAcknowledgement;
+        if (timer != null) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package org.vaadin.erik;
+
+/**
+ * The metrics returned by {@link SlideTabMetrics#noop()}, which record nothing
+ */
+final class NoopSlideTabMetrics implements SlideTabMetrics {
+
+    static final NoopSlideTabMetrics INSTANCE = new NoopSlideTabMetrics();
+
+    private NoopSlideTabMetrics() {
+    }
+}
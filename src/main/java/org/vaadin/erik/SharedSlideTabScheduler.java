@@ -0,0 +1,57 @@
+package org.vaadin.erik;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The scheduler returned by {@link SlideTabScheduler#shared()}.
+ * <p>
+ * The timer thread only waits for the delays. Due tasks take the session lock and may run toggle listeners, so they
+ * are handed over to the access threads, and a slow listener or a contended session never holds up the timer.
+ */
+final class SharedSlideTabScheduler implements SlideTabScheduler {
+
+    static final SharedSlideTabScheduler INSTANCE = new SharedSlideTabScheduler();
+
+    private final ScheduledThreadPoolExecutor timer;
+    private final ThreadPoolExecutor accessExecutor;
+
+    private SharedSlideTabScheduler() {
+        timer = new ScheduledThreadPoolExecutor(1, daemonThreads("slide-tab-scheduler-"));
+        // Cancelled tasks should not keep their SlideTab reachable until the delay has passed
+        timer.setRemoveOnCancelPolicy(true);
+
+        int accessThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        accessExecutor = new ThreadPoolExecutor(accessThreads, accessThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads("slide-tab-access-"));
+        // The threads are only started once tasks are due, and stop again when idle
+        accessExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public Future<?> schedule(Runnable task, long delayMillis) {
+        return timer.schedule(() -> accessExecutor.execute(task), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the executor service of the timer thread, which must only be used to wait for delays
+     */
+    ScheduledExecutorService getTimer() {
+        return timer;
+    }
+
+    private static ThreadFactory daemonThreads(String namePrefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package org.vaadin.erik;
+
+/**
+ * How a {@link SlideTab} animates expanding and collapsing
+ */
+public enum SlideAnimation {
+    /**
+     * animates the width or height of the panel, which lays out the page on every frame
+     */
+    SIZE,
+    /**
+     * slides the panel in and out of view with a transform, which only needs compositing on every frame<br>
+     * the panel keeps its size while collapsed, so the container of the {@link SlideTab} should clip overflow
+     */
+    TRANSFORM;
+
+    /**
+     * Returns the value of the animation property on the client
+     */
+    String getClientValue() {
+        return name().toLowerCase();
+    }
+}
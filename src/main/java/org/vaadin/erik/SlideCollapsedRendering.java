@@ -0,0 +1,29 @@
+package org.vaadin.erik;
+
+/**
+ * How the browser renders the content of a collapsed {@link SlideTab}
+ */
+public enum SlideCollapsedRendering {
+    /**
+     * the content stays styled and laid out, the panel is only sized to zero
+     */
+    VISIBLE,
+    /**
+     * the content is skipped with {@code content-visibility: hidden}, which keeps its rendering state so it is
+     * restored quickly on expand<br>
+     * browsers without support for it render the content as with {@link #VISIBLE}
+     */
+    CONTENT_VISIBILITY,
+    /**
+     * the content is removed from the render tree with {@code display: none}, so it costs nothing while collapsed,
+     * but is styled and laid out from scratch on expand
+     */
+    HIDDEN;
+
+    /**
+     * Returns the value of the collapsedRendering property on the client
+     */
+    String getClientValue() {
+        return name().toLowerCase();
+    }
+}
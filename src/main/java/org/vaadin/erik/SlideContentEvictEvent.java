@@ -0,0 +1,36 @@
+package org.vaadin.erik;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentEvent;
+
+/**
+ * Fired when a {@link SlideTabContentBudget} has evicted the content of a collapsed {@link SlideTab}. The content
+ * is rebuilt by the content supplier on the next expand.
+ */
+public class SlideContentEvictEvent extends ComponentEvent<SlideTab> {
+
+    private final Component content;
+
+    /**
+     * Creates a new event
+     *
+     * @param source    the source component
+     * @param content   the content that was evicted
+     */
+    public SlideContentEvictEvent(SlideTab source, Component content) {
+        super(source, false);
+        this.content = content;
+    }
+
+    @Override
+    public SlideTab getSource() {
+        return super.getSource();
+    }
+
+    /**
+     * Returns the content that was evicted
+     */
+    public Component getContent() {
+        return content;
+    }
+}
@@ -0,0 +1,82 @@
+package org.vaadin.erik;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentEvent;
+
+/**
+ * Fired when the content supplier of a {@link SlideTab} has created the content of the panel.
+ * <p>
+ * Comparing the number of these events to the number of created SlideTabs tells how many panels never had to be
+ * built, and {@link #getBuildNanos()} how long building the others took.
+ */
+public class SlideContentInitEvent extends ComponentEvent<SlideTab> {
+
+    private final Component content;
+    private final long buildNanos;
+    private final boolean rebuild;
+    private final boolean prefetch;
+
+    /**
+     * Creates a new event
+     *
+     * @param source        the source component
+     * @param content       the content that was created
+     * @param buildNanos    the time it took for the supplier to create the content, in nanoseconds
+     * @param rebuild       true if the content had been evicted by a {@link SlideTabContentBudget}
+     */
+    public SlideContentInitEvent(SlideTab source, Component content, long buildNanos, boolean rebuild) {
+        this(source, content, buildNanos, rebuild, false);
+    }
+
+    /**
+     * Creates a new event
+     *
+     * @param source        the source component
+     * @param content       the content that was created
+     * @param buildNanos    the time it took for the supplier to create the content, in nanoseconds
+     * @param rebuild       true if the content had been evicted by a {@link SlideTabContentBudget}
+     * @param prefetch      true if the content was created before the panel was expanded
+     */
+    public SlideContentInitEvent(SlideTab source, Component content, long buildNanos, boolean rebuild,
+                                 boolean prefetch) {
+        super(source, false);
+        this.content = content;
+        this.buildNanos = buildNanos;
+        this.rebuild = rebuild;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    public SlideTab getSource() {
+        return super.getSource();
+    }
+
+    /**
+     * Returns the content that was created
+     */
+    public Component getContent() {
+        return content;
+    }
+
+    /**
+     * Returns the time it took for the supplier to create the content, in nanoseconds
+     */
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+
+    /**
+     * Returns true if the content had been evicted by a {@link SlideTabContentBudget}, and was now rebuilt
+     */
+    public boolean isRebuild() {
+        return rebuild;
+    }
+
+    /**
+     * Returns true if the content was created before the panel was expanded, because the user showed intent to
+     * expand it. Listeners can use this to start loading the data of the content in the background.
+     */
+    public boolean isPrefetch() {
+        return prefetch;
+    }
+}
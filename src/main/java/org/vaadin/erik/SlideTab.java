@@ -1,78 +1,181 @@
 package org.vaadin.erik;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.vaadin.flow.component.AttachEvent;
 import com.vaadin.flow.component.ClientCallable;
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.ComponentEventListener;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.HasComponents;
 import com.vaadin.flow.component.HasSize;
 import com.vaadin.flow.component.HasStyle;
 import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 import com.vaadin.flow.component.dependency.JsModule;
-import com.vaadin.flow.component.html.Div;
-import com.vaadin.flow.component.polymertemplate.EventHandler;
-import com.vaadin.flow.component.polymertemplate.Id;
-import com.vaadin.flow.component.polymertemplate.PolymerTemplate;
+import com.vaadin.flow.function.SerializableSupplier;
 import com.vaadin.flow.server.Command;
+import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.shared.Registration;
-import com.vaadin.flow.templatemodel.TemplateModel;
+
+import elemental.json.JsonObject;
+
+import org.slf4j.LoggerFactory;
 
 /**
  * A component for showing a tab that when clicked expands a panel
+ * <p>
+ * Like other components, a SlideTab must be changed while holding the session lock. The exceptions, which may be
+ * called from any thread, are the scheduling methods, {@link #cancelScheduledTask()}, {@link #hasScheduledTask()},
+ * {@link #expandAsync()}, {@link #collapseAsync()}, {@link #setExpandedAsync(boolean, SlideTransition)} and
+ * {@link #getSnapshot()}.
  */
 @Tag("slide-tab")
 @JsModule("./src/slide-tab.js")
-public class SlideTab extends PolymerTemplate<SlideTab.SlideTabModel> implements HasComponents, HasSize, HasStyle {
+public class SlideTab extends Component implements HasComponents, HasSize, HasStyle {
 
-    @Id("tab")
-    private Div tabComponent;
-    @Id("content")
-    private Div contentComponent;
+    private Component content;
+    private SerializableSupplier<? extends Component> contentSupplier;
+    private boolean contentAdded;
+    private boolean contentEvicted;
+    private SlideTabContentBudget contentBudget;
+    private SlideTabContentBudget installedContentBudget;
+    private Registration deferredContentRegistration;
+    private int prefetchDelay;
+    // Changed to arm the client to report intent again, 0 when disarmed
+    private int prefetchToken;
+    private boolean prefetchArmed;
+    private SlideTabPrefetchBudget prefetchBudget;
+
+    private SlideTabGroup group;
 
     private Component expandComponent;
     private Component collapseComponent;
 
     private SlideMode slideMode;
-    private boolean expanded;
+    private volatile boolean expanded;
     private boolean autoCollapsing;
-    private boolean toggleEnabled;
+    private volatile boolean toggleEnabled;
+    private volatile boolean tabVisible;
+    private boolean clientSideToggle;
+    private boolean dragResize;
+    // The size a drag settled at, for the next toggle event
+    private int draggedSize;
+
+    // The state the client was last told about, and the state the listeners were last notified of
+    private boolean clientExpanded;
+    private boolean notifiedExpanded;
+    private int coalescingWindow;
+    private boolean coalescedFromClient;
+    // When the current coalescing window ends, in epoch millis
+    private long coalescingWindowEnd;
+    // True while changes made within the window wait for the client to request the flush
+    private boolean coalescePending;
 
     private int pixelSize;
+    private boolean autoSize;
+    private boolean reportingMeasuredSize;
+    private int measuredSize;
     private int animationDuration;
+    // The options for the next client side expand or collapse, null for the configured ones
+    private SlideTransition nextTransition;
+    private SlideAnimation animation;
+    private SlideCollapsedRendering collapsedRendering;
     private int zIndex;
 
-    private Timer timer = new Timer();
-    private TabTask currentTask;
+    private static SlideTabScheduler defaultScheduler = SlideTabScheduler.shared();
 
-    public SlideTab(SlideTabBuilder builder) {
-        add(builder.content);
+    private transient SlideTabScheduler scheduler;
+
+    private static SlideTabMetrics defaultMetrics = SlideTabMetrics.noop();
+
+    private transient SlideTabMetrics metrics;
+
+    private static Executor defaultListenerExecutor = ForkJoinPool.commonPool();
 
-        tabComponent.setHeight(builder.tabSize + "px");
-        slideMode = builder.mode;
-        addClassName(builder.mode.toString().toLowerCase());
+    private transient Executor listenerExecutor;
+    // The asynchronous listener tasks, run one at a time so that their UI updates are applied in order
+    private transient Queue<Runnable> asyncListenerTasks = new ConcurrentLinkedQueue<>();
+    private transient AtomicBoolean asyncListenersRunning = new AtomicBoolean();
+    private transient AtomicReference<ScheduledTasks> scheduledTasks = new AtomicReference<>(ScheduledTasks.NONE);
+    // The latest state requested from another thread that has not been applied yet
+    private transient AtomicReference<Runnable> asyncTarget = new AtomicReference<>();
+    // The dispatcher of the UI this SlideTab is attached to, for threads that do not hold the session lock
+    private volatile SlideTabDispatcher dispatcher;
+    // The session of the UI this SlideTab was last attached to, which still owns it while it is detached
+    private transient volatile VaadinSession session;
+    private volatile SlideTabSnapshot snapshot;
 
-        setAnimationDuration(builder.animationDuration);
-        setFixedContentSize(builder.pixel);
-        setZIndex(builder.zIndex);
-        setCaption(builder.caption);
-        setTabPosition(builder.tabPosition);
-        setClosingOnOutsideClick(builder.autoCollapseSlider);
-        setTabVisible(builder.tabVisible);
-        setToggleEnabled(true);
+    private volatile boolean clientSideScheduling;
+    // The tasks scheduled on the client that have not been reported as fired
+    private volatile Set<Integer> clientTaskIds;
+    private int clientTaskCount;
+    // Set once tasks have been scheduled on the client, after which cancelling has to reach the client as well
+    private volatile boolean clientTasksUsed;
 
-        if (builder.listeners != null) {
-            builder.listeners.forEach(this::addToggleListener);
+    public SlideTab(SlideTabBuilder builder) {
+        this(builder.buildSpec(), builder.content, builder.contentSupplier, builder.caption);
+    }
+
+    /**
+     * Creates a SlideTab from a spec, see {@link SlideTabSpec#create(Component)}
+     */
+    SlideTab(SlideTabSpec spec, Component content, SerializableSupplier<? extends Component> contentSupplier,
+             String caption) {
+        if (content != null) {
+            this.content = content;
+            add(content);
         }
+        this.contentSupplier = contentSupplier;
 
-        if (builder.styles != null) {
-            for (String style : builder.styles) {
-                addClassName(style);
-            }
+        slideMode = spec.mode;
+        animationDuration = spec.animationDuration;
+        animation = spec.animation;
+        collapsedRendering = spec.collapsedRendering;
+        pixelSize = spec.pixel;
+        autoSize = spec.autoSize;
+        reportingMeasuredSize = spec.reportMeasuredSize;
+        zIndex = spec.zIndex;
+        autoCollapsing = spec.autoCollapseSlider;
+        tabVisible = spec.tabVisible;
+        toggleEnabled = true;
+        clientSideToggle = spec.clientSideToggle;
+        dragResize = spec.dragResize;
+        coalescingWindow = spec.coalescingWindow;
+        clientSideScheduling = spec.clientSideScheduling;
+        prefetchDelay = spec.prefetchDelay;
+        spec.applyTo(getElement());
+        if (caption != null) {
+            setCaption(caption);
+        }
+
+        setDeferringContent(spec.deferContent);
+        if (spec.expanded) {
+            // The initial state, rendered when attached, so neither the client nor the listeners need to be told
+            expandState();
+            notifiedExpanded = true;
         }
+        updatePrefetch();
+        publishSnapshot();
+        spec.listeners.forEach(this::addToggleListener);
     }
 
     /**
@@ -82,6 +185,13 @@ public class SlideTab extends PolymerTemplate<SlideTab.SlideTabModel> implements
         expand(false);
     }
 
+    /**
+     * Expands the SlideTab panel with the given transition options
+     */
+    public void expand(SlideTransition transition) {
+        transition(transition, this::expand);
+    }
+
     /**
      * Expands the SlideTab panel
      *
@@ -89,335 +199,1553 @@ public class SlideTab extends PolymerTemplate<SlideTab.SlideTabModel> implements
      */
     private void expand(boolean fromClient) {
         if (!expanded && toggleEnabled) {
-            expanded = true;
-            doExpand();
-            fireEvent(new SlideToggleEvent(this, fromClient, true));
+            if (group != null) {
+                group.expand(this, fromClient);
+            } else if (coalescingWindow > 0) {
+                expandState();
+                coalesce(fromClient);
+            } else {
+                expandState();
+                doExpand();
+                fireToggleEvent(fromClient, true);
+            }
         }
     }
 
-    private void doExpand() {
-        getElement().callFunction("expand", pixelSize, slideMode.isVertical());
+    /**
+     * Marks the panel as expanded on the server, without updating the client or firing an event
+     */
+    void expandState() {
+        expanded = true;
+        if (prefetchBudget != null) {
+            prefetchBudget.expanded(this);
+            prefetchBudget = null;
+        }
+        boolean rebuilt = isContentDeferred() ? false : initContent();
+        SlideTabContentBudget budget = getContentBudget();
+        if (budget != null) {
+            budget.expanded(this, rebuilt);
+        }
+        publishSnapshot();
     }
 
     /**
-     * Collapses the SlideTab panel
+     * Marks the panel as collapsed on the server, without updating the client or firing an event
      */
-    public void collapse() {
-        collapse(false);
+    void collapseState() {
+        expanded = false;
+        if (group != null) {
+            group.collapsed(this);
+        }
+        publishSnapshot();
     }
 
     /**
-     * Collapses the SlideTab panel
-     *
-     * @param fromClient    For the toggle event, true if collapse was triggered by the client
+     * Returns the arguments for the client side expand function
      */
-    private void collapse(boolean fromClient) {
-        if(expanded && toggleEnabled) {
-            expanded = false;
-            getElement().callFunction("collapse", slideMode.isVertical());
-            fireEvent(new SlideToggleEvent(this, fromClient, false));
+    Serializable[] expandArguments() {
+        int size = pixelSize;
+        if (nextTransition != null && nextTransition.getSize() > 0) {
+            size = nextTransition.getSize();
         }
+        // A size measured by the client saves it from reading the layout, if it has not measured a newer one itself
+        int fallbackSize = autoSize ? measuredSize : 0;
+        Serializable[] arguments = {size, slideMode.isVertical(), contentAdded, takeTransitionOptions(), fallbackSize};
+        contentAdded = false;
+        clientExpanded = true;
+        return arguments;
     }
 
     /**
-     * Called by the client when clicking on the tab
+     * Returns the arguments for the client side collapse function
      */
-    @EventHandler
-    public void toggle() {
-        if (isExpanded()) {
-            collapse(true);
-        } else {
-            expand(true);
-        }
+    Serializable[] collapseArguments() {
+        clientExpanded = false;
+        return new Serializable[]{slideMode.isVertical(), takeTransitionOptions()};
+    }
+
+    private JsonObject takeTransitionOptions() {
+        JsonObject options = nextTransition != null ? nextTransition.toJson() : null;
+        nextTransition = null;
+        return options;
     }
 
     /**
-     * Called by the client when clicking outside the panel
+     * Runs a state change with the given options for the resulting client side transition
      */
-    @ClientCallable
-    public void onOutsideClicked() {
-        if (autoCollapsing && expanded) {
-            collapse(true);
+    private void transition(SlideTransition transition, Command command) {
+        nextTransition = transition;
+        try {
+            command.execute();
+        } finally {
+            // A coalesced transition is sent when the window ends
+            if (!coalescePending) {
+                nextTransition = null;
+            }
         }
     }
 
     /**
-     * Sets the caption of the tab
+     * Fires a toggle event for this SlideTab
      */
-    public void setCaption(final String caption) {
-        getModel().setCaption(caption);
+    void fireToggleEvent(boolean fromClient, boolean expand) {
+        notifiedExpanded = expand;
+        getMetrics().toggled(this, expand, fromClient);
+        fireEvent(new SlideToggleEvent(this, fromClient, expand, expand ? draggedSize : 0));
+        draggedSize = 0;
+    }
+
+    private void doExpand() {
+        callClient("expand", expandArguments());
+    }
+
+    private void doCollapse() {
+        callClient("collapse", collapseArguments());
+    }
+
+    private void callClient(String function, Serializable[] arguments) {
+        if (!getUI().isPresent()) {
+            // The state is rendered along with the element when it is attached
+            return;
+        }
+        SlideTabMetrics metrics = getMetrics();
+        if (metrics.isMeasuringClientAcknowledgement()) {
+            long start = System.nanoTime();
+            getElement().callJsFunction(function, arguments)
+                    .then(result -> metrics.clientAcknowledged(this, function, System.nanoTime() - start));
+        } else {
+            getElement().callJsFunction(function, arguments);
+        }
     }
 
     /**
-     * Returns the caption of the tab
+     * Applies the first state change right away and opens a coalescing window. Changes made within the window only
+     * update the server state, and are sent and notified together when the client requests the flush at the end
+     * of the window, so that only the final state is sent.
+     *
+     * @param fromClient    true if the latest state change was triggered by the client
      */
-    public String getCaption() {
-        return getModel().getCaption();
+    private void coalesce(boolean fromClient) {
+        coalescedFromClient = fromClient;
+        if (coalescePending) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (now >= coalescingWindowEnd || !getUI().isPresent()) {
+            coalescingWindowEnd = now + coalescingWindow;
+            flushCoalesced();
+        } else {
+            coalescePending = true;
+            // Requested by the client, so the flush happens within a request and needs no push
+            getElement().callJsFunction("requestCoalescedFlush", coalescingWindowEnd - now);
+        }
     }
 
     /**
-     * Sets the component that should be shown next to the caption in the tab when the component is collapsed.
+     * Called by the client when the coalescing window has ended
      */
-    public void setExpandComponent(Component component) {
-        if (expandComponent != null) {
-            remove(expandComponent);
+    @ClientCallable
+    public void onCoalescingWindowEnd() {
+        if (coalescePending) {
+            flushCoalesced();
         }
-        expandComponent = component;
-        expandComponent.getElement().setAttribute("slot", "expand");
-        add(expandComponent);
     }
 
     /**
-     * Returns the component that is shown next to the caption in the tab when the component is collapsed,
-     * or null if one has not been explicitly set.
+     * Sends the coalesced state to the client, and notifies the listeners if it differs from the state they
+     * were last notified of
      */
-    public Component getExpandComponent() {
-        return expandComponent;
+    private void flushCoalesced() {
+        coalescePending = false;
+        if (expanded != clientExpanded) {
+            if (expanded) {
+                doExpand();
+            } else {
+                doCollapse();
+            }
+        }
+        if (expanded != notifiedExpanded || expanded && draggedSize > 0) {
+            fireToggleEvent(coalescedFromClient, expanded);
+        } else {
+            // Dragged open and closed again within the window, there is no size to report
+            draggedSize = 0;
+        }
+        // Also after an expand and collapse that cancelled out, as expanding took the content out of the budget
+        retainContent();
     }
 
     /**
-     * Sets the component that should be shown next to the caption in the tab when the component is expanded.
+     * Sets a window in milliseconds during which state changes are coalesced. A state change outside of a window is
+     * applied right away, and opens a new window. Only the state at the end of the window is sent to the client, and
+     * toggle listeners are only notified if it differs from the state they were last notified of.
+     * <p>
+     * The client requests the coalesced state when the window ends, so it needs neither push nor a background
+     * thread. Tabs in a {@link SlideTabGroup} are not coalesced.
+     *
+     * @param coalescingWindow  the window in milliseconds, or 0 (default) to apply every state change immediately
      */
-    public void setCollapseComponent(Component component) {
-        if (collapseComponent != null) {
-            remove(collapseComponent);
+    public void setCoalescingWindow(int coalescingWindow) {
+        this.coalescingWindow = Math.max(0, coalescingWindow);
+        if (this.coalescingWindow == 0 && coalescePending) {
+            flushCoalesced();
         }
-        collapseComponent = component;
-        collapseComponent.getElement().setAttribute("slot", "collapse");
-        add(collapseComponent);
     }
 
     /**
-     * Returns the component that is shown next to the caption in the tab when the component is expanded,
-     * or null if one has not been explicitly set.
+     * Returns the window in milliseconds during which state changes are coalesced, 0 if they are not
      */
-    public Component getCollapseComponent() {
-        return collapseComponent;
+    public int getCoalescingWindow() {
+        return coalescingWindow;
     }
 
     /**
-     * Controls the position of the tab-panel
+     * Creates the content using the content supplier, if it has not been created yet
      *
-     * @param tabPosition by default MIDDLE
+     * @return true if the content had been evicted, and was now rebuilt
      */
-    public void setTabPosition(final SlideTabPosition tabPosition) {
-        Arrays.stream(SlideTabPosition.values())
-                .forEach(value -> setClassName(value.name().toLowerCase(), value == tabPosition));
+    private boolean initContent() {
+        return initContent(false);
     }
 
     /**
-     * Sets if the panel should close when clicking outside it
+     * Creates the content using the content supplier, if it has not been created yet
+     *
+     * @param prefetch  true if the panel is not being expanded
+     * @return true if the content had been evicted, and was now rebuilt
      */
-    public void setClosingOnOutsideClick(boolean autoCollapsing) {
-        this.autoCollapsing = autoCollapsing;
+    private boolean initContent(boolean prefetch) {
+        if (content == null && contentSupplier != null) {
+            boolean rebuilt = contentEvicted;
+            contentEvicted = false;
+
+            long start = System.nanoTime();
+            content = contentSupplier.get();
+            long buildNanos = System.nanoTime() - start;
+
+            add(content);
+            // The client should wait for the new content before measuring it, prefetched content is there already
+            contentAdded = !prefetch;
+            updatePrefetch();
+            publishSnapshot();
+            fireEvent(new SlideContentInitEvent(this, content, buildNanos, rebuilt, prefetch));
+            return rebuilt;
+        }
+        return false;
     }
 
     /**
-     * Returns if the panel should close when clicking outside it
+     * Sets if content created by the content supplier should only be added once the panel has finished expanding,
+     * so that building and rendering it does not make the animation stutter.
+     * <p>
+     * Only applies when the panel does not need the content to know its size, that is when a fixed content size is
+     * set or in auto size mode.
      */
-    public boolean isClosingOnOutsideClick() {
-        return autoCollapsing;
+    public void setDeferringContent(boolean deferringContent) {
+        if (deferringContent && deferredContentRegistration == null) {
+            deferredContentRegistration = addTransitionEndListener(event -> {
+                if (event.isExpanded() && expanded && content == null) {
+                    boolean rebuilt = initContent();
+                    // The panel is already open, the client has nothing to wait for
+                    contentAdded = false;
+                    SlideTabContentBudget budget = getContentBudget();
+                    if (budget != null && rebuilt) {
+                        budget.expanded(this, true);
+                    }
+                }
+            });
+        } else if (!deferringContent && deferredContentRegistration != null) {
+            deferredContentRegistration.remove();
+            deferredContentRegistration = null;
+        }
     }
 
     /**
-     * Returns the animation duration when expanding or collapsing the panel
-     *
-     * @return duration in milliseconds
+     * Returns if content created by the content supplier is only added once the panel has finished expanding
      */
-    public int getAnimationDuration() {
-        return animationDuration;
+    public boolean isDeferringContent() {
+        return deferredContentRegistration != null;
+    }
+
+    private boolean isContentDeferred() {
+        return isDeferringContent() && (pixelSize > 0 || autoSize);
     }
 
     /**
-     * set the animation duration
-     * by default 500ms
+     * Sets how long the pointer has to rest on the tab before the content supplier creates the content of the
+     * collapsed panel, so that it is ready by the time the tab is clicked.
+     * <p>
+     * The number of tabs in a UI that have prefetched their content without being expanded is limited by its
+     * {@link SlideTabPrefetchBudget}. Prefetched content fires a {@link SlideContentInitEvent} for which
+     * {@link SlideContentInitEvent#isPrefetch()} is true.
      *
-     * @param animationDuration in milliseconds
+     * @param prefetchDelay     the delay in milliseconds, or 0 (default) to not prefetch
      */
-    public void setAnimationDuration(final int animationDuration) {
-        if (this.animationDuration != animationDuration) {
-            this.animationDuration = animationDuration;
-            contentComponent.getStyle().set("transition", String.format("height %dms, width %dms", animationDuration, animationDuration));
-        }
+    public void setPrefetchDelay(int prefetchDelay) {
+        this.prefetchDelay = Math.max(0, prefetchDelay);
+        getElement().setProperty("prefetchDelay", this.prefetchDelay);
+        updatePrefetch();
     }
 
     /**
-     * Sets a fixed size for the content in pixels
+     * Returns how long the pointer has to rest on the tab before the content is prefetched, 0 if it is not
      */
-    public void setFixedContentSize(final int pixelHeight) {
-        this.pixelSize = pixelHeight;
+    public int getPrefetchDelay() {
+        return prefetchDelay;
     }
 
     /**
-     * Returns the fixed size of the content in pixels, may be 0
+     * Called by the client when the pointer has rested on the tab for the prefetch delay
      */
-    public int getFixedContentSize() {
-        return pixelSize;
+    @ClientCallable
+    public void onTabIntent() {
+        Optional<UI> ui = getUI();
+        if (expanded || content != null || contentSupplier == null || prefetchDelay == 0 || !ui.isPresent()) {
+            return;
+        }
+        SlideTabPrefetchBudget budget = SlideTabPrefetchBudget.get(ui.get());
+        if (budget.acquire(this)) {
+            prefetchBudget = budget;
+            initContent(true);
+            retainContent();
+        } else {
+            // The budget arms a refused tab again when a slot is freed, or the client retries once one has expired
+            long retryDelay = budget.getMillisUntilReleased();
+            if (retryDelay >= 0) {
+                getElement().callJsFunction("deferPrefetch", retryDelay);
+            }
+        }
     }
 
     /**
-     * Defines the z-index of the panel, default 1
+     * Called by the prefetch budget when a slot has been freed after this tab was refused one
      */
-    public void setZIndex(int zIndex) {
-        this.zIndex = zIndex;
-        getStyle().set("z-index", String.valueOf(zIndex));
+    void armPrefetch() {
+        updatePrefetch();
     }
 
     /**
-     * Returns the z-index of the panel
+     * Arms the client to report intent if there is content to prefetch, and disarms it otherwise
      */
-    public int getZIndex() {
-        return zIndex;
+    private void updatePrefetch() {
+        boolean armed = prefetchDelay > 0 && content == null && contentSupplier != null;
+        if (armed) {
+            getElement().setProperty("prefetchToken", ++prefetchToken);
+        } else if (prefetchArmed) {
+            getElement().setProperty("prefetchToken", 0);
+        }
+        prefetchArmed = armed;
+    }
+
+    private void releasePrefetch() {
+        if (prefetchBudget != null) {
+            prefetchBudget.released(this);
+            prefetchBudget = null;
+        }
     }
 
     /**
-     * Sets the visibility of the tab.
+     * Removes and releases the content of a collapsed panel, so that it is rebuilt by the content supplier on the
+     * next expand
      *
-     * If the tab is not visible, it can not be used to open or close the panel.
+     * @return true if the content was evicted
      */
-    public void setTabVisible(boolean visible) {
-        // Setting setVisible only toggles the 'hidden' attribute, which for a normal div does nothing
-        tabComponent.getStyle().set("display", visible ? "flex" : "none");
+    boolean evictContent() {
+        if (expanded || content == null || contentSupplier == null) {
+            return false;
+        }
+        Component evicted = content;
+        remove(content);
+        content = null;
+        contentEvicted = true;
+        releasePrefetch();
+        updatePrefetch();
+        publishSnapshot();
+        fireEvent(new SlideContentEvictEvent(this, evicted));
+        return true;
     }
 
     /**
-     * Returns true if the tab is visible
+     * Informs the content budget that the content of this panel could be evicted
      */
-    public boolean isTabVisible() {
-        return tabComponent.isVisible();
+    void retainContent() {
+        SlideTabContentBudget budget = getContentBudget();
+        if (budget != null && !expanded && content != null && contentSupplier != null) {
+            budget.collapsed(this);
+        }
     }
 
     /**
-     * Expands or collapses the panel
+     * Sets the budget that limits how long this panel keeps its content while collapsed. Overrides any budget
+     * installed for the UI or session.
      *
-     * @param expanded      true to expand
-     * @param animated      should be animated or not
+     * @param contentBudget     the budget, or null to use the budget installed for the UI or session
      */
-    public void setExpanded(final boolean expanded, final boolean animated) {
-        if (this.expanded != expanded) {
-            setAnimationDuration(animated ? animationDuration : 0);
-
-            if (expanded) {
-                expand();
-            } else {
-                collapse();
+    public void setContentBudget(SlideTabContentBudget contentBudget) {
+        SlideTabContentBudget previous = getContentBudget();
+        this.contentBudget = contentBudget;
+        if (previous != getContentBudget()) {
+            if (previous != null) {
+                previous.removed(this);
             }
+            retainContent();
         }
     }
 
     /**
-     * Returns true if expanded or is expanding
+     * Returns the budget that limits how long this panel keeps its content while collapsed, or null if there is
+     * none
      */
-    public boolean isExpanded() {
-        return expanded;
+    public SlideTabContentBudget getContentBudget() {
+        return contentBudget != null ? contentBudget : installedContentBudget;
     }
 
     /**
-     * schedule a state change of the slider
-     * a recall within the schedule will cancel the previous one
+     * Sets a supplier that creates the content of the panel the first time it is expanded.
+     * <p>
+     * If content has already been created by a previous supplier while the panel is collapsed, it is removed,
+     * and the new supplier is used on the next expand.
      *
-     * @param value       true means expand
-     * @param animated    should be animated or not
-     * @param delayMillis millis in future the task will happen
+     * @param contentSupplier   the content supplier, or null to only use already added content
      */
-    public void scheduleExpand(final boolean value, final boolean animated, final int delayMillis) {
-        if (currentTask != null) {
-            currentTask.cancel();
+    public void setContentSupplier(SerializableSupplier<? extends Component> contentSupplier) {
+        if (this.contentSupplier != null && content != null && !expanded) {
+            remove(content);
+            content = null;
+            if (getContentBudget() != null) {
+                getContentBudget().removed(this);
+            }
+            releasePrefetch();
         }
-        currentTask = new TabTask(() -> setExpanded(value, animated));
-        timer.schedule(currentTask, delayMillis);
+        this.contentSupplier = contentSupplier;
+        updatePrefetch();
+        publishSnapshot();
     }
 
     /**
-     * schedule a change from expand to collapse vice versa in future.
-     * a recall within the schedule will cancel the previous one
-     *
-     * @param delayMillis millis in future the task will happen
+     * Returns the supplier that creates the content of the panel, or null if the content was given directly
      */
-    public void scheduleToggle(final int delayMillis) {
-        if (currentTask != null) {
-            currentTask.cancel();
-        }
-        currentTask = new TabTask(this::toggle);
-        timer.schedule(currentTask, delayMillis);
+    public SerializableSupplier<? extends Component> getContentSupplier() {
+        return contentSupplier;
     }
 
     /**
-     * schedule a collapse in future. will trigger a timer that will collapse the slider
-     * a recall within the schedule will cancel the previous one
-     *
-     * @param delayMillis millis in future the task will happen
+     * Returns the content of the panel, or null if it is created by a supplier and has not been created yet
      */
-    public void scheduleCollapse(final int delayMillis) {
-        if (currentTask != null) {
-            currentTask.cancel();
-        }
-        currentTask = new TabTask(this::collapse);
-        timer.schedule(currentTask, delayMillis);
+    public Component getContent() {
+        return content;
     }
 
     /**
-     * schedule an expand in future. will trigger a timer that will expand the slider
-     * a recall within the schedule will cancel the previous one
-     *
-     * @param delayMillis millis in future the task will happen
+     * Returns true if the content of the panel has been created
      */
-    public void scheduleExpand(final int delayMillis) {
-        if (currentTask != null) {
-            currentTask.cancel();
-        }
-        currentTask = new TabTask(this::expand);
-        timer.schedule(currentTask, delayMillis);
+    public boolean isContentInitialized() {
+        return content != null;
     }
 
     /**
-     * Adds a listener that will be notified when the panel expands or collapses
+     * Adds a listener that will be notified when the content supplier has created the content of the panel
      */
-    public Registration addToggleListener(ComponentEventListener<SlideToggleEvent> listener) {
-        return this.addListener(SlideToggleEvent.class, listener);
+    public Registration addContentInitListener(ComponentEventListener<SlideContentInitEvent> listener) {
+        return this.addListener(SlideContentInitEvent.class, listener);
     }
 
     /**
-     *  If set, the panel can not be expanded or collapsed
+     * Adds a listener that will be notified when the content budget has evicted the content of the panel
      */
-    public void setToggleEnabled(boolean enabled) {
-        this.toggleEnabled = enabled;
+    public Registration addContentEvictListener(ComponentEventListener<SlideContentEvictEvent> listener) {
+        return this.addListener(SlideContentEvictEvent.class, listener);
     }
 
     /**
-     * Returns whether or not the panel can be expanded/collapsed
+     * Collapses the SlideTab panel
      */
-    public boolean isToggleEnabled() {
-        return toggleEnabled;
+    public void collapse() {
+        collapse(false);
     }
 
     /**
-     * A utility class for wrapping a command in a TimerTask and running it in the UI
+     * Collapses the SlideTab panel with the given transition options
      */
-    private class TabTask extends TimerTask {
-
-        private Command command;
+    public void collapse(SlideTransition transition) {
+        transition(transition, this::collapse);
+    }
 
-        private TabTask(Command command) {
-            this.command = command;
+    /**
+     * Collapses the SlideTab panel
+     *
+     * @param fromClient    For the toggle event, true if collapse was triggered by the client
+     */
+    private void collapse(boolean fromClient) {
+        if(expanded && toggleEnabled) {
+            collapseState();
+            if (coalescingWindow > 0 && group == null) {
+                coalesce(fromClient);
+            } else {
+                doCollapse();
+                fireToggleEvent(fromClient, false);
+                retainContent();
+            }
         }
+    }
 
-        @Override
-        public void run() {
-            getUI().ifPresent(ui -> ui.access(command));
+    /**
+     * Expands the panel if it is collapsed, and collapses it if it is expanded
+     */
+    public void toggle() {
+        if (isExpanded()) {
+            collapse(true);
+        } else {
+            expand(true);
         }
     }
 
-    public interface SlideTabModel extends TemplateModel {
-        void setCaption(String caption);
-        String getCaption();
+    /**
+     * Called by the client when clicking on the tab, unless client side toggling is enabled
+     */
+    @ClientCallable
+    public void onTabClicked() {
+        toggle();
     }
 
-    @Override
-    public void onAttach(AttachEvent attachEvent) {
-        // Ensures the component in the browser is in sync
-        if (expanded) {
-            doExpand();
+    /**
+     * Called by the client when it has expanded or collapsed the panel by itself
+     *
+     * @param expand    true if the client expanded the panel
+     */
+    @ClientCallable
+    public void onClientToggled(boolean expand) {
+        clientExpanded = expand;
+        if (expand == expanded) {
+            return;
+        }
+        if (!toggleEnabled) {
+            // The client was out of date, revert it to the server state
+            if (expanded) {
+                doExpand();
+            } else {
+                doCollapse();
+            }
+        } else if (coalescingWindow > 0 && group == null) {
+            if (expand) {
+                expandState();
+            } else {
+                collapseState();
+            }
+            coalesce(true);
+        } else if (expand) {
+            if (group != null) {
+                group.expand(this, true);
+            } else {
+                expandState();
+                if (contentAdded) {
+                    // The client measured the panel before the content existed
+                    doExpand();
+                }
+                fireToggleEvent(true, true);
+            }
+        } else {
+            collapseState();
+            fireToggleEvent(true, false);
+            retainContent();
         }
     }
+
+    /**
+     * Sets if the client should expand and collapse the panel immediately when the tab is clicked, and only
+     * report the new state to the server afterwards.
+     * <p>
+     * This removes the server round trip from the click, and toggle listeners are notified with
+     * {@link SlideToggleEvent#isFromClient()} true once the new state has reached the server.
+     */
+    public void setClientSideToggle(boolean clientSideToggle) {
+        this.clientSideToggle = clientSideToggle;
+        getElement().setProperty("clientSideToggle", clientSideToggle);
+    }
+
+    /**
+     * Returns if the client expands and collapses the panel without waiting for the server
+     */
+    public boolean isClientSideToggle() {
+        return clientSideToggle;
+    }
+
+    /**
+     * Sets if the panel can be opened partway or closed by dragging or swiping the tab.
+     * <p>
+     * The client follows the pointer on its own, and only reports where the panel settled once the gesture ends.
+     * Toggle listeners are then notified with the settled size, see {@link SlideToggleEvent#getSize()}, also if
+     * the gesture only resized an expanded panel. Not supported with {@link SlideAnimation#TRANSFORM}.
+     */
+    public void setDragResize(boolean dragResize) {
+        this.dragResize = dragResize;
+        getElement().setProperty("dragResize", dragResize);
+    }
+
+    /**
+     * Returns if the panel can be resized by dragging the tab
+     */
+    public boolean isDragResize() {
+        return dragResize;
+    }
+
+    /**
+     * Called by the client when a drag or swipe of the tab has ended
+     *
+     * @param expand    true if the panel settled expanded
+     * @param size      the size the panel settled at, or 0 if it follows the size of its content
+     */
+    @ClientCallable
+    public void onDragged(boolean expand, int size) {
+        if (!toggleEnabled) {
+            onClientToggled(expand);
+            return;
+        }
+        // Kept until the toggle event reports it, which may be after a coalescing window
+        draggedSize = Math.max(0, size);
+        if (expand != expanded) {
+            // Content that is only created now should not change the size the user dragged to
+            SlideTransition transition = expand && draggedSize > 0 ?
+                    SlideTransition.animated().withSize(draggedSize) : null;
+            transition(transition, () -> onClientToggled(expand));
+        } else {
+            clientExpanded = expand;
+            if (expand) {
+                // Only resized, so the listeners are told the new size
+                if (coalescingWindow > 0 && group == null) {
+                    coalesce(true);
+                } else {
+                    if (group != null) {
+                        group.resized(this);
+                    }
+                    fireToggleEvent(true, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Called by the client when clicking outside the panel
+     */
+    @ClientCallable
+    public void onOutsideClicked() {
+        boolean collapsing = autoCollapsing && expanded && toggleEnabled;
+        getMetrics().outsideClicked(this, !collapsing);
+        if (collapsing) {
+            collapse(true);
+        }
+    }
+
+    /**
+     * Sets the caption of the tab
+     */
+    public void setCaption(final String caption) {
+        getElement().setProperty("caption", caption);
+    }
+
+    /**
+     * Returns the caption of the tab
+     */
+    public String getCaption() {
+        return getElement().getProperty("caption");
+    }
+
+    /**
+     * Sets the component that should be shown next to the caption in the tab when the component is collapsed.
+     */
+    public void setExpandComponent(Component component) {
+        if (expandComponent != null) {
+            remove(expandComponent);
+        }
+        expandComponent = component;
+        expandComponent.getElement().setAttribute("slot", "expand");
+        add(expandComponent);
+    }
+
+    /**
+     * Returns the component that is shown next to the caption in the tab when the component is collapsed,
+     * or null if one has not been explicitly set.
+     */
+    public Component getExpandComponent() {
+        return expandComponent;
+    }
+
+    /**
+     * Sets the component that should be shown next to the caption in the tab when the component is expanded.
+     */
+    public void setCollapseComponent(Component component) {
+        if (collapseComponent != null) {
+            remove(collapseComponent);
+        }
+        collapseComponent = component;
+        collapseComponent.getElement().setAttribute("slot", "collapse");
+        add(collapseComponent);
+    }
+
+    /**
+     * Returns the component that is shown next to the caption in the tab when the component is expanded,
+     * or null if one has not been explicitly set.
+     */
+    public Component getCollapseComponent() {
+        return collapseComponent;
+    }
+
+    /**
+     * Controls the position of the tab-panel
+     *
+     * @param tabPosition by default MIDDLE
+     */
+    public void setTabPosition(final SlideTabPosition tabPosition) {
+        Arrays.stream(SlideTabPosition.values())
+                .forEach(value -> setClassName(value.name().toLowerCase(), value == tabPosition));
+    }
+
+    /**
+     * Sets if the panel should close when clicking outside it
+     */
+    public void setClosingOnOutsideClick(boolean autoCollapsing) {
+        this.autoCollapsing = autoCollapsing;
+        // The client only reports outside clicks when they would close the panel
+        getElement().setProperty("closingOnOutsideClick", autoCollapsing);
+    }
+
+    /**
+     * Returns if the panel should close when clicking outside it
+     */
+    public boolean isClosingOnOutsideClick() {
+        return autoCollapsing;
+    }
+
+    /**
+     * Returns the animation duration when expanding or collapsing the panel
+     *
+     * @return duration in milliseconds
+     */
+    public int getAnimationDuration() {
+        return animationDuration;
+    }
+
+    /**
+     * set the animation duration
+     * by default 500ms
+     *
+     * @param animationDuration in milliseconds
+     */
+    public void setAnimationDuration(final int animationDuration) {
+        if (this.animationDuration != animationDuration) {
+            this.animationDuration = animationDuration;
+            getElement().setProperty("animationDuration", animationDuration);
+        }
+    }
+
+    /**
+     * Returns the direction the panel slides in
+     */
+    public SlideMode getSlideMode() {
+        return slideMode;
+    }
+
+    /**
+     * Sets how expanding and collapsing is animated, by default {@link SlideAnimation#SIZE}
+     */
+    public void setAnimation(final SlideAnimation animation) {
+        this.animation = Objects.requireNonNull(animation, "animation must not be null");
+        getElement().setProperty("animation", animation.getClientValue());
+    }
+
+    /**
+     * Returns how expanding and collapsing is animated
+     */
+    public SlideAnimation getAnimation() {
+        return animation;
+    }
+
+    /**
+     * Sets how the browser renders the content while the panel is collapsed, by default
+     * {@link SlideCollapsedRendering#VISIBLE}
+     */
+    public void setCollapsedRendering(final SlideCollapsedRendering collapsedRendering) {
+        this.collapsedRendering = Objects.requireNonNull(collapsedRendering, "collapsedRendering must not be null");
+        getElement().setProperty("collapsedRendering", collapsedRendering.getClientValue());
+    }
+
+    /**
+     * Returns how the browser renders the content while the panel is collapsed
+     */
+    public SlideCollapsedRendering getCollapsedRendering() {
+        return collapsedRendering;
+    }
+
+    /**
+     * Sets a fixed size for the content in pixels
+     */
+    public void setFixedContentSize(final int pixelHeight) {
+        this.pixelSize = pixelHeight;
+        getElement().setProperty("fixedContentSize", pixelHeight);
+    }
+
+    /**
+     * Returns the fixed size of the content in pixels, may be 0
+     */
+    public int getFixedContentSize() {
+        return pixelSize;
+    }
+
+    /**
+     * Sets if the client should observe the size of the content, and fit the panel to it whenever it changes.
+     * Only applies when no fixed content size is set.
+     */
+    public void setAutoSize(boolean autoSize) {
+        this.autoSize = autoSize;
+        if (!autoSize) {
+            measuredSize = 0;
+        }
+        getElement().setProperty("autoSize", autoSize);
+    }
+
+    /**
+     * Returns if the client fits the panel to the size of the content whenever it changes
+     */
+    public boolean isAutoSize() {
+        return autoSize;
+    }
+
+    /**
+     * Sets if the client should report the size it has measured in auto size mode to the server, so that it can be
+     * passed to the client on later expands
+     */
+    public void setReportingMeasuredSize(boolean reportingMeasuredSize) {
+        this.reportingMeasuredSize = reportingMeasuredSize;
+        getElement().setProperty("reportMeasuredSize", reportingMeasuredSize);
+    }
+
+    /**
+     * Returns if the client reports the size it has measured in auto size mode to the server
+     */
+    public boolean isReportingMeasuredSize() {
+        return reportingMeasuredSize;
+    }
+
+    /**
+     * Returns the size of the content in pixels as last reported by the client, or 0 if it is not known
+     */
+    public int getMeasuredSize() {
+        return measuredSize;
+    }
+
+    /**
+     * Called by the client in auto size mode when the size of the content has changed
+     */
+    @ClientCallable
+    public void onContentSizeMeasured(int size) {
+        if (autoSize && reportingMeasuredSize) {
+            measuredSize = size;
+        }
+    }
+
+    /**
+     * Defines the z-index of the panel, default 1
+     */
+    public void setZIndex(int zIndex) {
+        this.zIndex = zIndex;
+        getStyle().set("z-index", String.valueOf(zIndex));
+    }
+
+    /**
+     * Returns the z-index of the panel
+     */
+    public int getZIndex() {
+        return zIndex;
+    }
+
+    /**
+     * Sets the visibility of the tab.
+     *
+     * If the tab is not visible, it can not be used to open or close the panel.
+     */
+    public void setTabVisible(boolean visible) {
+        this.tabVisible = visible;
+        getElement().setProperty("tabVisible", visible);
+        publishSnapshot();
+    }
+
+    /**
+     * Returns true if the tab is visible
+     */
+    public boolean isTabVisible() {
+        return tabVisible;
+    }
+
+    /**
+     * Expands or collapses the panel
+     *
+     * @param expanded      true to expand
+     * @param animated      should be animated or not
+     */
+    public void setExpanded(final boolean expanded, final boolean animated) {
+        setExpanded(expanded, animated ? SlideTransition.animated() : SlideTransition.instant());
+    }
+
+    /**
+     * Expands or collapses the panel
+     *
+     * @param expanded      true to expand
+     * @param transition    the options for this transition only
+     */
+    public void setExpanded(final boolean expanded, final SlideTransition transition) {
+        if (expanded) {
+            expand(transition);
+        } else {
+            collapse(transition);
+        }
+    }
+
+    /**
+     * Returns true if expanded or is expanding
+     */
+    public boolean isExpanded() {
+        return expanded;
+    }
+
+    /**
+     * schedule a state change of the slider
+     * a recall within the schedule will cancel the previous one
+     * may be called from any thread
+     *
+     * @param value       true means expand
+     * @param animated    should be animated or not
+     * @param delayMillis millis in future the task will happen
+     */
+    public void scheduleExpand(final boolean value, final boolean animated, final int delayMillis) {
+        schedule(new Step(() -> setExpanded(value, animated), value ? "expand" : "collapse", animated,
+                delayMillis));
+    }
+
+    /**
+     * schedule a change from expand to collapse vice versa in future.
+     * a recall within the schedule will cancel the previous one
+     * may be called from any thread
+     *
+     * @param delayMillis millis in future the task will happen
+     */
+    public void scheduleToggle(final int delayMillis) {
+        schedule(new Step(this::toggle, "toggle", true, delayMillis));
+    }
+
+    /**
+     * schedule a collapse in future. will trigger a timer that will collapse the slider
+     * a recall within the schedule will cancel the previous one
+     * may be called from any thread
+     *
+     * @param delayMillis millis in future the task will happen
+     */
+    public void scheduleCollapse(final int delayMillis) {
+        schedule(new Step(this::collapse, "collapse", true, delayMillis));
+    }
+
+    /**
+     * schedule an expand in future. will trigger a timer that will expand the slider
+     * a recall within the schedule will cancel the previous one
+     * may be called from any thread
+     *
+     * @param delayMillis millis in future the task will happen
+     */
+    public void scheduleExpand(final int delayMillis) {
+        schedule(new Step(this::expand, "expand", true, delayMillis));
+    }
+
+    /**
+     * schedule the steps of a timeline, each at its own time in future.
+     * a recall within the schedule will cancel the previous one, as will any other schedule call
+     * may be called from any thread
+     *
+     * @param timeline the steps to apply
+     */
+    public void scheduleTimeline(final SlideTabTimeline timeline) {
+        schedule(timeline.getSteps().stream()
+                .map(step -> new Step(() -> step.action.accept(this), step.clientAction, step.animated,
+                        step.atMillis))
+                .toArray(Step[]::new));
+    }
+
+    /**
+     * Cancels the currently scheduled task or timeline, if any. May be called from any thread.
+     */
+    public void cancelScheduledTask() {
+        replaceScheduledTasks(Collections.emptyList(), false);
+    }
+
+    private void cancelClientTasks() {
+        Set<Integer> clientTaskIds = this.clientTaskIds;
+        if (clientTaskIds != null && !clientTaskIds.isEmpty()) {
+            clientTaskIds.forEach(id -> getMetrics().taskCancelled(this));
+            clientTaskIds.clear();
+            getElement().callJsFunction("cancelScheduled");
+        }
+    }
+
+    /**
+     * Returns true if a scheduled task or a step of a scheduled timeline has not happened yet. May be called from
+     * any thread.
+     */
+    public boolean hasScheduledTask() {
+        ScheduledTasks current = scheduledTasks.get();
+        Set<Integer> clientTaskIds = this.clientTaskIds;
+        return current.clientPending || !current.tasks.isEmpty() || clientTaskIds != null && !clientTaskIds.isEmpty();
+    }
+
+    /**
+     * Sets if the delays of {@link #scheduleExpand(int)}, {@link #scheduleCollapse(int)},
+     * {@link #scheduleToggle(int)}, {@link #scheduleExpand(boolean, boolean, int)} and the corresponding
+     * {@link SlideTabTimeline} steps should run in the browser.
+     * <p>
+     * The client then expands or collapses the panel by itself when the delay has passed, and reports the new state
+     * to the server afterwards, like with client side toggling. This needs neither a server thread nor push. The
+     * delay starts when the client receives the task, so for a detached SlideTab it starts once it is attached.
+     * Timeline steps with custom actions always run on the server.
+     */
+    public void setClientSideScheduling(boolean clientSideScheduling) {
+        this.clientSideScheduling = clientSideScheduling;
+    }
+
+    /**
+     * Returns if the delays of scheduled state changes run in the browser
+     */
+    public boolean isClientSideScheduling() {
+        return clientSideScheduling;
+    }
+
+    /**
+     * Called by the client when a task scheduled on the client has fired
+     *
+     * @param id        the id of the task
+     * @param expanded  the state of the client after the task fired
+     */
+    @ClientCallable
+    public void onScheduledTaskFired(int id, boolean expanded) {
+        Set<Integer> clientTaskIds = this.clientTaskIds;
+        if (clientTaskIds != null && clientTaskIds.remove(id)) {
+            getMetrics().taskFired(this);
+            onClientToggled(expanded);
+        } else if (expanded != this.expanded) {
+            // The task was cancelled before it fired, revert the client to the server state
+            if (this.expanded) {
+                doExpand();
+            } else {
+                doCollapse();
+            }
+        }
+    }
+
+    /**
+     * Replaces the scheduled tasks with the given steps
+     */
+    private void schedule(Step... steps) {
+        if (clientSideScheduling && Arrays.stream(steps).anyMatch(step -> step.clientAction != null)) {
+            scheduleOnClient(steps);
+        } else {
+            List<TabTask> tasks = createTasks(Arrays.asList(steps));
+            replaceScheduledTasks(tasks, false);
+            startTasks(tasks, Arrays.asList(steps));
+        }
+    }
+
+    /**
+     * Schedules the steps with a client side action on the client, and the rest on the server.
+     * <p>
+     * Client side tasks are sent through the element, which needs the session lock, so they may only be sent once
+     * the UI gets to it. The previous tasks are replaced right away though, and any schedule or cancel call made in
+     * the meantime makes the queued one do nothing.
+     */
+    private void scheduleOnClient(Step... steps) {
+        clientTasksUsed = true;
+        long generation = replaceScheduledTasks(Collections.emptyList(), true);
+        runLocked(() -> {
+            List<Step> serverSteps = new ArrayList<>();
+            for (Step step : steps) {
+                if (step.clientAction == null) {
+                    serverSteps.add(step);
+                }
+            }
+            List<TabTask> tasks = createTasks(serverSteps);
+            ScheduledTasks current = scheduledTasks.get();
+            if (current.generation != generation ||
+                    !scheduledTasks.compareAndSet(current, new ScheduledTasks(generation, tasks, false))) {
+                // Replaced or cancelled while waiting for the session lock
+                return;
+            }
+            startTasks(tasks, serverSteps);
+            for (Step step : steps) {
+                if (step.clientAction != null) {
+                    sendClientTask(step);
+                }
+            }
+        });
+    }
+
+    private void sendClientTask(Step step) {
+        if (clientTaskIds == null) {
+            clientTaskIds = ConcurrentHashMap.newKeySet();
+        }
+        int id = ++clientTaskCount;
+        clientTaskIds.add(id);
+        getMetrics().taskScheduled(this);
+        getElement().callJsFunction("schedule", id, step.clientAction, step.animated, step.delayMillis);
+    }
+
+    /**
+     * Replaces the scheduled tasks in one atomic swap, so that concurrent calls can not lose a cancellation, and
+     * cancels the previous ones, including any tasks on the client
+     *
+     * @param tasks         the new tasks, not started yet
+     * @param clientPending true if client side tasks are about to be sent
+     * @return              the generation of the new tasks
+     */
+    private long replaceScheduledTasks(List<TabTask> tasks, boolean clientPending) {
+        ScheduledTasks previous = scheduledTasks.getAndUpdate(
+                current -> new ScheduledTasks(current.generation + 1, tasks, clientPending));
+        previous.tasks.forEach(TabTask::cancel);
+        if (clientTasksUsed) {
+            // Queued behind any client side tasks that are about to be sent, so those are cancelled as well
+            runLocked(this::cancelClientTasks);
+        }
+        return previous.generation + 1;
+    }
+
+    private List<TabTask> createTasks(List<Step> steps) {
+        List<TabTask> tasks = new ArrayList<>(steps.size());
+        for (Step step : steps) {
+            tasks.add(new TabTask(step.command));
+        }
+        return Collections.unmodifiableList(tasks);
+    }
+
+    private void startTasks(List<TabTask> tasks, List<Step> steps) {
+        for (int i = 0; i < tasks.size(); i++) {
+            TabTask task = tasks.get(i);
+            task.metrics.taskScheduled(this);
+            task.future = task.scheduler.schedule(task, steps.get(i).delayMillis);
+            if (task.done.get()) {
+                // Cancelled by another thread before the future was set
+                task.future.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Runs the command right away if the current thread may change this SlideTab, and in the UI it is attached to
+     * otherwise. A detached SlideTab is changed while holding the lock of the session it was last attached to, and
+     * only one that has not been attached since it was created or deserialized is changed right away.
+     */
+    private void runLocked(Command command) {
+        SlideTabDispatcher dispatcher = this.dispatcher;
+        VaadinSession session = this.session;
+        if (dispatcher != null) {
+            if (dispatcher.isLockHeld()) {
+                command.execute();
+            } else {
+                dispatcher.access(command);
+            }
+        } else if (session != null && !session.hasLock()) {
+            session.access(command);
+        } else {
+            command.execute();
+        }
+    }
+
+    /**
+     * Expands the panel from any thread. The change is applied in the UI the SlideTab is attached to, without
+     * waiting for the session lock.
+     * <p>
+     * Calls made before the UI has applied the previous call replace it, so a producer calling this at a high rate
+     * only costs a single {@link UI#access} per batch of calls.
+     */
+    public void expandAsync() {
+        setExpandedAsync(true, null);
+    }
+
+    /**
+     * Collapses the panel from any thread, see {@link #expandAsync()}
+     */
+    public void collapseAsync() {
+        setExpandedAsync(false, null);
+    }
+
+    /**
+     * Expands or collapses the panel from any thread, see {@link #expandAsync()}
+     *
+     * @param expanded      true to expand
+     * @param transition    the options for the transition, or null for the configured ones
+     */
+    public void setExpandedAsync(boolean expanded, SlideTransition transition) {
+        Runnable target = () -> setExpanded(expanded, transition);
+        if (asyncTarget.getAndSet(target) == null) {
+            // No update is pending, the one queued now applies the latest target when it runs
+            runLocked(() -> {
+                Runnable latest = asyncTarget.getAndSet(null);
+                if (latest != null) {
+                    latest.run();
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns a snapshot of the state of this SlideTab. May be called from any thread, without holding the
+     * session lock.
+     */
+    public SlideTabSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Publishes the current state for {@link #getSnapshot()}
+     */
+    private void publishSnapshot() {
+        snapshot = SlideTabSnapshot.of(expanded, toggleEnabled, tabVisible, content != null);
+    }
+
+    /**
+     * The tasks of the latest schedule or cancel call. The generation is increased by every such call, so that a
+     * client side schedule that is still waiting for the session lock can tell if it has been replaced.
+     */
+    private static final class ScheduledTasks {
+
+        private static final ScheduledTasks NONE = new ScheduledTasks(0, Collections.emptyList(), false);
+
+        private final long generation;
+        private final List<TabTask> tasks;
+        // True while client side tasks are waiting for the session lock to be sent
+        private final boolean clientPending;
+
+        private ScheduledTasks(long generation, List<TabTask> tasks, boolean clientPending) {
+            this.generation = generation;
+            this.tasks = tasks;
+            this.clientPending = clientPending;
+        }
+
+        private ScheduledTasks without(TabTask task) {
+            if (!tasks.contains(task)) {
+                return this;
+            }
+            List<TabTask> remaining = new ArrayList<>(tasks);
+            remaining.remove(task);
+            return new ScheduledTasks(generation, Collections.unmodifiableList(remaining), clientPending);
+        }
+    }
+
+    /**
+     * A state change to schedule
+     */
+    private static class Step {
+
+        private final Command command;
+        // The name of the equivalent client side action, or null if it can only run on the server
+        private final String clientAction;
+        private final boolean animated;
+        private final int delayMillis;
+
+        private Step(Command command, String clientAction, boolean animated, int delayMillis) {
+            this.command = command;
+            this.clientAction = clientAction;
+            this.animated = animated;
+            this.delayMillis = delayMillis;
+        }
+    }
+
+    /**
+     * Sets the metrics that record the activity of this SlideTab, or null to use the default metrics
+     */
+    public void setMetrics(SlideTabMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the metrics that record the activity of this SlideTab
+     */
+    public SlideTabMetrics getMetrics() {
+        return metrics != null ? metrics : defaultMetrics;
+    }
+
+    /**
+     * Sets the metrics used by all SlideTabs that have not been given metrics of their own.
+     * By default this is {@link SlideTabMetrics#noop()}.
+     */
+    public static void setDefaultMetrics(SlideTabMetrics metrics) {
+        defaultMetrics = Objects.requireNonNull(metrics, "metrics must not be null");
+    }
+
+    /**
+     * Returns the metrics used by all SlideTabs that have not been given metrics of their own
+     */
+    public static SlideTabMetrics getDefaultMetrics() {
+        return defaultMetrics;
+    }
+
+    /**
+     * Sets the scheduler used for the scheduled tasks of this SlideTab, or null to use the default scheduler
+     */
+    public void setScheduler(SlideTabScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Returns the scheduler used for the scheduled tasks of this SlideTab
+     */
+    public SlideTabScheduler getScheduler() {
+        return scheduler != null ? scheduler : defaultScheduler;
+    }
+
+    /**
+     * Sets the scheduler used by all SlideTabs that have not been given a scheduler of their own.
+     * By default this is {@link SlideTabScheduler#shared()}.
+     */
+    public static void setDefaultScheduler(SlideTabScheduler scheduler) {
+        defaultScheduler = Objects.requireNonNull(scheduler, "scheduler must not be null");
+    }
+
+    /**
+     * Returns the scheduler used by all SlideTabs that have not been given a scheduler of their own
+     */
+    public static SlideTabScheduler getDefaultScheduler() {
+        return defaultScheduler;
+    }
+
+    /**
+     * Adds a listener that will be notified when the panel expands or collapses
+     */
+    public Registration addToggleListener(ComponentEventListener<SlideToggleEvent> listener) {
+        return this.addListener(SlideToggleEvent.class, listener);
+    }
+
+    /**
+     * Adds a listener that will be notified when the panel expands or collapses, without holding the session lock.
+     * <p>
+     * The listener runs on the listener executor, see {@link #setListenerExecutor(Executor)}, and the command it
+     * returns is applied to the UI with {@link UI#access} once it has finished. The asynchronous listeners of a
+     * SlideTab run one event at a time, so their commands are applied in the order the panel was toggled.
+     * Exceptions thrown by the listener are passed to the error handler of the session, or logged if the SlideTab
+     * is not attached.
+     */
+    public Registration addAsyncToggleListener(SlideToggleAsyncListener listener) {
+        Objects.requireNonNull(listener, "listener must not be null");
+        return addToggleListener(event -> {
+            Optional<UI> ui = getUI();
+            runAsyncListener(() -> {
+                Command update;
+                try {
+                    update = listener.onToggle(event);
+                } catch (RuntimeException e) {
+                    if (!ui.isPresent()) {
+                        // There is no session to pass it to, the queue logs it instead
+                        throw e;
+                    }
+                    update = () -> {
+                        throw e;
+                    };
+                }
+                if (update != null && ui.isPresent()) {
+                    try {
+                        ui.get().access(update);
+                    } catch (UIDetachedException e) {
+                        // The UI was closed while the listener was running, there is nothing left to update
+                    }
+                }
+            });
+        });
+    }
+
+    /**
+     * Queues a task of the asynchronous listeners, and starts running the queue on the listener executor unless
+     * it is already running
+     */
+    private void runAsyncListener(Runnable task) {
+        asyncListenerTasks.add(task);
+        if (asyncListenersRunning.compareAndSet(false, true)) {
+            try {
+                getListenerExecutor().execute(this::drainAsyncListeners);
+            } catch (RuntimeException e) {
+                asyncListenersRunning.set(false);
+                throw e;
+            }
+        }
+    }
+
+    private void drainAsyncListeners() {
+        do {
+            Runnable task;
+            while ((task = asyncListenerTasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    LoggerFactory.getLogger(SlideTab.class).error("Asynchronous toggle listener failed", e);
+                }
+            }
+            asyncListenersRunning.set(false);
+            // A task queued after the queue was found empty, but before the flag was cleared, is run here
+        } while (!asyncListenerTasks.isEmpty() && asyncListenersRunning.compareAndSet(false, true));
+    }
+
+    /**
+     * Sets the executor that runs the asynchronous toggle listeners of this SlideTab, or null to use the default
+     * executor
+     */
+    public void setListenerExecutor(Executor listenerExecutor) {
+        this.listenerExecutor = listenerExecutor;
+    }
+
+    /**
+     * Returns the executor that runs the asynchronous toggle listeners of this SlideTab
+     */
+    public Executor getListenerExecutor() {
+        return listenerExecutor != null ? listenerExecutor : defaultListenerExecutor;
+    }
+
+    /**
+     * Sets the executor used by all SlideTabs that have not been given a listener executor of their own.
+     * By default this is {@link ForkJoinPool#commonPool()}.
+     */
+    public static void setDefaultListenerExecutor(Executor listenerExecutor) {
+        defaultListenerExecutor = Objects.requireNonNull(listenerExecutor, "listenerExecutor must not be null");
+    }
+
+    /**
+     * Returns the executor used by all SlideTabs that have not been given a listener executor of their own
+     */
+    public static Executor getDefaultListenerExecutor() {
+        return defaultListenerExecutor;
+    }
+
+    /**
+     * Adds a listener that will be notified when the client has finished animating the panel open or closed
+     */
+    public Registration addTransitionEndListener(ComponentEventListener<SlideTransitionEndEvent> listener) {
+        return this.addListener(SlideTransitionEndEvent.class, listener);
+    }
+
+    /**
+     * Returns the group this SlideTab belongs to, or null if it does not belong to a group
+     */
+    public SlideTabGroup getGroup() {
+        return group;
+    }
+
+    /**
+     * Called by the group when this SlideTab is added to it or removed from it
+     */
+    void setGroup(SlideTabGroup group) {
+        this.group = group;
+    }
+
+    /**
+     *  If set, the panel can not be expanded or collapsed
+     */
+    public void setToggleEnabled(boolean enabled) {
+        this.toggleEnabled = enabled;
+        getElement().setProperty("toggleEnabled", enabled);
+        publishSnapshot();
+    }
+
+    /**
+     * Returns whether or not the panel can be expanded/collapsed
+     */
+    public boolean isToggleEnabled() {
+        return toggleEnabled;
+    }
+
+    /**
+     * A utility class for wrapping a command in a scheduled task and running it in the UI
+     */
+    private class TabTask implements Runnable {
+
+        private final Command command;
+        private final SlideTabMetrics metrics = getMetrics();
+        private final SlideTabScheduler scheduler = getScheduler();
+        // Set when the task has either fired or been cancelled
+        private final AtomicBoolean done = new AtomicBoolean();
+        private volatile Future<?> future;
+
+        private TabTask(Command command) {
+            this.command = command;
+        }
+
+        private void cancel() {
+            if (done.compareAndSet(false, true)) {
+                metrics.taskCancelled(SlideTab.this);
+            }
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (done.get()) {
+                return;
+            }
+            // Tasks of attached tabs that become due together are run in a single UI access
+            SlideTabDispatcher dispatcher = SlideTab.this.dispatcher;
+            if (dispatcher != null) {
+                dispatcher.dispatch(this::fire, scheduler);
+            } else if (done.compareAndSet(false, true)) {
+                metrics.taskCancelled(SlideTab.this);
+            }
+        }
+
+        private void fire() {
+            // The task may have been cancelled while waiting for the session lock
+            if (done.compareAndSet(false, true)) {
+                scheduledTasks.updateAndGet(current -> current.without(this));
+                metrics.taskFired(SlideTab.this);
+                command.execute();
+            }
+        }
+    }
+
+    @Override
+    public void onAttach(AttachEvent attachEvent) {
+        // The client renders the state before the first paint, instead of expanding the panel after it
+        if (expanded || getElement().hasProperty("expanded")) {
+            getElement().setProperty("expanded", expanded);
+        }
+        clientExpanded = expanded;
+        contentAdded = false;
+        dispatcher = SlideTabDispatcher.get(attachEvent.getUI());
+        session = attachEvent.getSession();
+        // An async update that was lost with a previous UI must not block the next ones
+        asyncTarget.set(null);
+        installedContentBudget = SlideTabContentBudget.find(attachEvent.getUI());
+        retainContent();
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        // A pending task would keep this component reachable, and can not reach a detached UI anyway
+        cancelScheduledTask();
+        // The session is kept, the detached SlideTab is still changed under its lock
+        dispatcher = null;
+        if (coalescePending) {
+            flushCoalesced();
+        }
+
+        SlideTabContentBudget budget = getContentBudget();
+        if (budget != null) {
+            budget.removed(this);
+        }
+        installedContentBudget = null;
+        releasePrefetch();
+        SlideTabPrefetchBudget prefetch = SlideTabPrefetchBudget.find(detachEvent.getUI());
+        if (prefetch != null) {
+            // Forgets this tab if it was refused
+            prefetch.released(this);
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        // Pending tasks are not serialized
+        scheduledTasks = new AtomicReference<>(ScheduledTasks.NONE);
+        asyncTarget = new AtomicReference<>();
+        asyncListenerTasks = new ConcurrentLinkedQueue<>();
+        asyncListenersRunning = new AtomicBoolean();
+    }
 }
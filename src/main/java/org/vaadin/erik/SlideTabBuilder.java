@@ -6,6 +6,7 @@ import java.util.List;
 
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.ComponentEventListener;
+import com.vaadin.flow.function.SerializableSupplier;
 
 /**
  * @author eriklumme
@@ -15,6 +16,8 @@ public class SlideTabBuilder {
 
     protected Component content;
 
+    protected SerializableSupplier<? extends Component> contentSupplier;
+
     protected SlideMode mode = SlideMode.TOP;
 
     protected boolean expanded = false;
@@ -33,14 +36,37 @@ public class SlideTabBuilder {
 
     protected int animationDuration = 500;
 
+    protected SlideAnimation animation = SlideAnimation.SIZE;
+
+    protected SlideCollapsedRendering collapsedRendering = SlideCollapsedRendering.VISIBLE;
+
     protected List<String> styles = null;
 
     protected int pixel = -1;
 
     protected boolean autoCollapseSlider = false;
 
+    protected boolean autoSize = false;
+
+    protected boolean reportMeasuredSize = false;
+
+    protected boolean clientSideToggle = false;
+
+    protected boolean dragResize = false;
+
+    protected int coalescingWindow = 0;
+
+    protected boolean clientSideScheduling = false;
+
+    protected boolean deferContent = false;
+
+    protected int prefetchDelay = 0;
+
     protected int zIndex = 1;
 
+    // Shared by the tabs built until the configuration changes, the spec is immutable
+    private SlideTabSpec spec;
+
     /**
      * creates an builder instance that can be configured fluently
      *
@@ -63,6 +89,40 @@ public class SlideTabBuilder {
         this.caption = caption;
     }
 
+    /**
+     * creates an builder instance without content, for {@link #lazy(SerializableSupplier)}
+     */
+    protected SlideTabBuilder() {
+    }
+
+    /**
+     * creates an builder instance that can be configured fluently
+     *
+     * @param contentSupplier creates the content that is wrapped by the SliderPanel the first time it is expanded<br>
+     *                        typically it returns a Vertical or HorizontalLayout
+     * @return builder
+     */
+    public static SlideTabBuilder lazy(final SerializableSupplier<? extends Component> contentSupplier) {
+        SlideTabBuilder builder = new SlideTabBuilder();
+        builder.contentSupplier = contentSupplier;
+        return builder;
+    }
+
+    /**
+     * creates an builder instance that can be configured fluently
+     *
+     * @param contentSupplier creates the content that is wrapped by the SliderPanel the first time it is expanded<br>
+     *                        typically it returns a Vertical or HorizontalLayout
+     * @param caption         of the slider navigation element
+     * @return builder
+     */
+    public static SlideTabBuilder lazy(final SerializableSupplier<? extends Component> contentSupplier,
+                                       final String caption) {
+        SlideTabBuilder builder = lazy(contentSupplier);
+        builder.caption = caption;
+        return builder;
+    }
+
     /**
      * Which type of display you want to have
      *
@@ -71,6 +131,7 @@ public class SlideTabBuilder {
      */
     public SlideTabBuilder mode(final SlideMode mode) {
         this.mode = mode;
+        changed();
         return this;
     }
 
@@ -82,6 +143,7 @@ public class SlideTabBuilder {
      */
     public SlideTabBuilder expanded(final boolean expanded) {
         this.expanded = expanded;
+        changed();
         return this;
     }
 
@@ -93,6 +155,7 @@ public class SlideTabBuilder {
      */
     public SlideTabBuilder flowInContent(final boolean flowInContent) {
         this.flowInContent = flowInContent;
+        changed();
         return this;
     }
 
@@ -106,6 +169,7 @@ public class SlideTabBuilder {
      */
     public SlideTabBuilder tabSize(final int tabSize) {
         this.tabSize = tabSize;
+        changed();
         return this;
     }
 
@@ -119,6 +183,7 @@ public class SlideTabBuilder {
             this.listeners = new ArrayList<>();
         }
         this.listeners.add(listener);
+        changed();
         return this;
     }
 
@@ -130,6 +195,7 @@ public class SlideTabBuilder {
      */
     public SlideTabBuilder caption(final String caption) {
         this.caption = caption;
+        changed();
         return this;
     }
 
@@ -142,6 +208,7 @@ public class SlideTabBuilder {
      */
     public SlideTabBuilder tabPosition(final SlideTabPosition tabPosition) {
         this.tabPosition = tabPosition;
+        changed();
         return this;
     }
 
@@ -153,6 +220,7 @@ public class SlideTabBuilder {
      */
     public SlideTabBuilder tabVisible(boolean tabVisible) {
         this.tabVisible = tabVisible;
+        changed();
         return this;
     }
 
@@ -164,6 +232,31 @@ public class SlideTabBuilder {
      */
     public SlideTabBuilder animationDuration(final int animationDuration) {
         this.animationDuration = animationDuration;
+        changed();
+        return this;
+    }
+
+    /**
+     * How a collapse/expand should be animated
+     *
+     * @param animation default <b>SIZE</b>
+     * @return builder
+     */
+    public SlideTabBuilder animation(final SlideAnimation animation) {
+        this.animation = animation;
+        changed();
+        return this;
+    }
+
+    /**
+     * How the browser renders the content while collapsed
+     *
+     * @param collapsedRendering default <b>VISIBLE</b>
+     * @return builder
+     */
+    public SlideTabBuilder collapsedRendering(final SlideCollapsedRendering collapsedRendering) {
+        this.collapsedRendering = collapsedRendering;
+        changed();
         return this;
     }
 
@@ -180,6 +273,7 @@ public class SlideTabBuilder {
         if (style != null) {
             styles.addAll(Arrays.asList(style));
         }
+        changed();
         return this;
     }
 
@@ -192,6 +286,22 @@ public class SlideTabBuilder {
      */
     public SlideTabBuilder fixedContentSize(final int pixel) {
         this.pixel = pixel;
+        changed();
+        return this;
+    }
+
+    /**
+     * by default the {@link SlideTab} calculates it's content width/height when it expands<br>
+     * in auto size mode the size is observed, and the panel follows it while it is expanded
+     *
+     * @param autoSize enable auto size, ignored if a fixed content size is set
+     * @param reportMeasuredSize report the measured size to the server, so later expands need no measuring
+     * @return builder
+     */
+    public SlideTabBuilder autoSize(final boolean autoSize, final boolean reportMeasuredSize) {
+        this.autoSize = autoSize;
+        this.reportMeasuredSize = reportMeasuredSize;
+        changed();
         return this;
     }
 
@@ -204,6 +314,85 @@ public class SlideTabBuilder {
      */
     public SlideTabBuilder autoCollapseSlider(final boolean autoCollapseSlider) {
         this.autoCollapseSlider = autoCollapseSlider;
+        changed();
+        return this;
+    }
+
+    /**
+     * by default clicking the tab expands or collapses the {@link SlideTab} when the server responds<br>
+     * with client side toggling the panel is toggled immediately and the server is informed afterwards
+     *
+     * @param clientSideToggle enable client side toggling
+     * @return builder
+     */
+    public SlideTabBuilder clientSideToggle(final boolean clientSideToggle) {
+        this.clientSideToggle = clientSideToggle;
+        changed();
+        return this;
+    }
+
+    /**
+     * by default the {@link SlideTab} is only opened and closed by clicking the tab<br>
+     * with drag resize the tab can be dragged to open the panel partway, or swiped to open or close it
+     *
+     * @param dragResize enable dragging the tab
+     * @return builder
+     */
+    public SlideTabBuilder dragResize(final boolean dragResize) {
+        this.dragResize = dragResize;
+        changed();
+        return this;
+    }
+
+    /**
+     * by default the delays of scheduled expands and collapses run on the server, and need push to be seen<br>
+     * with client side scheduling they run in the browser, which reports the new state to the server afterwards
+     *
+     * @param clientSideScheduling enable client side scheduling
+     * @return builder
+     */
+    public SlideTabBuilder clientSideScheduling(final boolean clientSideScheduling) {
+        this.clientSideScheduling = clientSideScheduling;
+        changed();
+        return this;
+    }
+
+    /**
+     * by default every expand or collapse is sent to the client and notifies the listeners immediately<br>
+     * with a coalescing window only the final state of rapid changes within the window is sent
+     *
+     * @param coalescingWindow window in milliseconds, default <b>0</b>
+     * @return builder
+     */
+    public SlideTabBuilder coalescingWindow(final int coalescingWindow) {
+        this.coalescingWindow = coalescingWindow;
+        changed();
+        return this;
+    }
+
+    /**
+     * by default content created by the content supplier is added before the panel starts expanding<br>
+     * when deferred it is added once the panel is fully open, requires a fixed content size or auto size
+     *
+     * @param deferContent add supplied content after the expand animation
+     * @return builder
+     */
+    public SlideTabBuilder deferContent(final boolean deferContent) {
+        this.deferContent = deferContent;
+        changed();
+        return this;
+    }
+
+    /**
+     * by default content created by the content supplier is created when the panel expands<br>
+     * with a prefetch delay it is created once the pointer has rested on the tab for that long
+     *
+     * @param prefetchDelay delay in milliseconds, default <b>0</b> to not prefetch
+     * @return builder
+     */
+    public SlideTabBuilder prefetchDelay(final int prefetchDelay) {
+        this.prefetchDelay = prefetchDelay;
+        changed();
         return this;
     }
 
@@ -216,9 +405,31 @@ public class SlideTabBuilder {
      */
     public SlideTabBuilder zIndex(int zIndex) {
         this.zIndex = zIndex;
+        changed();
         return this;
     }
 
+    /**
+     * generates an immutable spec, from which any number of identically configured SliderPanels can be created<br>
+     * later changes to this builder do not affect the spec
+     *
+     * @return instance of {@link SlideTabSpec}
+     */
+    public SlideTabSpec buildSpec() {
+        if (spec == null) {
+            spec = new SlideTabSpec(this);
+        }
+        return spec;
+    }
+
+    /**
+     * drops the spec shared by the tabs built so far<br>
+     * called by every configuring method, subclasses that change the fields directly need to call it as well
+     */
+    protected void changed() {
+        spec = null;
+    }
+
     /**
      * generates the SliderPanel
      *
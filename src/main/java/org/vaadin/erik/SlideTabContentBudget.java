@@ -0,0 +1,195 @@
+package org.vaadin.erik;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.VaadinSession;
+
+/**
+ * Bounds the content that collapsed SlideTabs keep in memory.
+ * <p>
+ * Only content that was created by a content supplier, see {@link SlideTab#setContentSupplier}, can be evicted.
+ * When a SlideTab with such content collapses, it is added to this budget. Once more than
+ * {@link #getMaxRetained()} collapsed tabs keep their content, the least recently collapsed ones are evicted. Tabs
+ * that have stayed collapsed for longer than {@link #getMaxIdle()} are evicted as well. Evicted content is detached
+ * and released, and rebuilt by the supplier on the next expand.
+ * <p>
+ * A budget applies to all SlideTabs in the UI or session it is installed to, see {@link #install(UI)} and
+ * {@link #install(VaadinSession)}, or to the SlideTabs it is explicitly set to with
+ * {@link SlideTab#setContentBudget(SlideTabContentBudget)}. Idle tabs are evicted whenever the budget is used by
+ * any of its tabs, or when {@link #evictIdle()} is called.
+ */
+public class SlideTabContentBudget implements Serializable {
+
+    private final int maxRetained;
+    private final Duration maxIdle;
+
+    // Insertion ordered, so the first entry is the least recently collapsed tab
+    private final LinkedHashMap<SlideTab, Long> retained = new LinkedHashMap<>();
+
+    private long evictionCount;
+    private long rebuildCount;
+
+    /**
+     * Creates a budget that only limits the number of collapsed tabs that keep their content
+     *
+     * @param maxRetained   the maximum number of collapsed tabs that keep their content
+     */
+    public SlideTabContentBudget(int maxRetained) {
+        this(maxRetained, null);
+    }
+
+    /**
+     * Creates a budget
+     *
+     * @param maxRetained   the maximum number of collapsed tabs that keep their content
+     * @param maxIdle       the time after which the content of a collapsed tab is evicted, or null for no limit
+     */
+    public SlideTabContentBudget(int maxRetained, Duration maxIdle) {
+        if (maxRetained < 0) {
+            throw new IllegalArgumentException("maxRetained must not be negative");
+        }
+        this.maxRetained = maxRetained;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Installs this budget for all SlideTabs attached to the given UI
+     *
+     * @return this budget
+     */
+    public SlideTabContentBudget install(UI ui) {
+        ComponentUtil.setData(Objects.requireNonNull(ui), SlideTabContentBudget.class, this);
+        return this;
+    }
+
+    /**
+     * Installs this budget for all SlideTabs attached to any UI of the given session, unless the UI has a budget
+     * of its own
+     *
+     * @return this budget
+     */
+    public SlideTabContentBudget install(VaadinSession session) {
+        Objects.requireNonNull(session).setAttribute(SlideTabContentBudget.class, this);
+        return this;
+    }
+
+    /**
+     * Returns the budget installed for the given UI or its session, or null if there is none
+     */
+    public static SlideTabContentBudget find(UI ui) {
+        SlideTabContentBudget budget = ComponentUtil.getData(ui, SlideTabContentBudget.class);
+        if (budget == null && ui.getSession() != null) {
+            budget = ui.getSession().getAttribute(SlideTabContentBudget.class);
+        }
+        return budget;
+    }
+
+    /**
+     * Returns the maximum number of collapsed tabs that keep their content
+     */
+    public int getMaxRetained() {
+        return maxRetained;
+    }
+
+    /**
+     * Returns the time after which the content of a collapsed tab is evicted, or null for no limit
+     */
+    public Duration getMaxIdle() {
+        return maxIdle;
+    }
+
+    /**
+     * Returns the number of collapsed tabs that currently keep their content
+     */
+    public int getRetainedCount() {
+        return retained.size();
+    }
+
+    /**
+     * Returns the number of times content has been evicted
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Returns the number of times evicted content has been rebuilt
+     */
+    public long getRebuildCount() {
+        return rebuildCount;
+    }
+
+    /**
+     * Evicts the content of all tabs that have been collapsed for longer than the idle limit
+     *
+     * @return the number of evicted tabs
+     */
+    public int evictIdle() {
+        if (maxIdle == null || retained.isEmpty()) {
+            return 0;
+        }
+        long threshold = System.currentTimeMillis() - maxIdle.toMillis();
+        List<SlideTab> idle = new ArrayList<>();
+        for (Map.Entry<SlideTab, Long> entry : retained.entrySet()) {
+            if (entry.getValue() > threshold) {
+                // Entries are in collapse order, so the rest are more recent
+                break;
+            }
+            idle.add(entry.getKey());
+        }
+        idle.forEach(this::evict);
+        return idle.size();
+    }
+
+    /**
+     * Called when a tab with evictable content has collapsed
+     */
+    void collapsed(SlideTab tab) {
+        retained.remove(tab);
+        retained.put(tab, System.currentTimeMillis());
+        evictIdle();
+
+        Iterator<SlideTab> iterator = retained.keySet().iterator();
+        List<SlideTab> excess = new ArrayList<>();
+        for (int i = retained.size() - maxRetained; i > 0; i--) {
+            excess.add(iterator.next());
+        }
+        excess.forEach(this::evict);
+    }
+
+    /**
+     * Called when a tab has expanded
+     *
+     * @param rebuilt   true if the content of the tab had been evicted, and was now rebuilt
+     */
+    void expanded(SlideTab tab, boolean rebuilt) {
+        retained.remove(tab);
+        if (rebuilt) {
+            rebuildCount++;
+        }
+        evictIdle();
+    }
+
+    /**
+     * Called when a tab no longer uses this budget
+     */
+    void removed(SlideTab tab) {
+        retained.remove(tab);
+    }
+
+    private void evict(SlideTab tab) {
+        retained.remove(tab);
+        if (tab.evictContent()) {
+            evictionCount++;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package org.vaadin.erik;
+
+import java.io.Serializable;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.server.Command;
+import com.vaadin.flow.server.ErrorEvent;
+import com.vaadin.flow.server.ErrorHandler;
+import com.vaadin.flow.server.VaadinSession;
+
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the scheduled commands of all SlideTabs in a UI that become due together in a single {@link UI#access},
+ * so that they take the session lock once and, with push, reach the client in a single message.
+ * <p>
+ * A due command does not access the UI itself, but queues a drain of the UI on the scheduler it was due on.
+ * The scheduler runs the commands that are already due before the drain, so they end up in the same batch.
+ * A command that throws is reported to the error handler of the session, and does not keep the rest of the batch
+ * from running.
+ */
+class SlideTabDispatcher implements Serializable {
+
+    private final UI ui;
+    private final transient Queue<Command> due = new ConcurrentLinkedQueue<>();
+    private final transient AtomicBoolean drainQueued = new AtomicBoolean();
+
+    private SlideTabDispatcher(UI ui) {
+        this.ui = ui;
+    }
+
+    /**
+     * Returns the dispatcher of the given UI, creating it if needed. Must be called while holding the session lock.
+     */
+    static SlideTabDispatcher get(UI ui) {
+        SlideTabDispatcher dispatcher = ComponentUtil.getData(ui, SlideTabDispatcher.class);
+        if (dispatcher == null) {
+            dispatcher = new SlideTabDispatcher(ui);
+            ComponentUtil.setData(ui, SlideTabDispatcher.class, dispatcher);
+        }
+        return dispatcher;
+    }
+
+    /**
+     * Queues a command to run in the next batch. May be called from any thread.
+     *
+     * @param command       the command to run while holding the session lock
+     * @param scheduler     the scheduler the command became due on
+     */
+    void dispatch(Command command, SlideTabScheduler scheduler) {
+        due.add(command);
+        if (drainQueued.compareAndSet(false, true)) {
+            scheduler.schedule(this::drain, 0);
+        }
+    }
+
+    /**
+     * Returns true if the current thread holds the lock of the session of the UI
+     */
+    boolean isLockHeld() {
+        VaadinSession session = ui.getSession();
+        return session == null || session.hasLock();
+    }
+
+    /**
+     * Runs a single command in the UI, unless the UI has been detached
+     */
+    void access(Command command) {
+        try {
+            ui.access(command);
+        } catch (UIDetachedException e) {
+            // The SlideTab is detached along with the UI, there is nothing left to update
+        }
+    }
+
+    private void drain() {
+        try {
+            ui.access(() -> {
+                // Commands queued from now on need a new drain, unless this one gets to them first
+                drainQueued.set(false);
+                Command command;
+                while ((command = due.poll()) != null) {
+                    execute(command);
+                }
+            });
+        } catch (UIDetachedException e) {
+            // Detaching cancels the scheduled tasks of the SlideTabs, so nothing is lost
+            due.clear();
+            drainQueued.set(false);
+        }
+    }
+
+    private void execute(Command command) {
+        try {
+            command.execute();
+        } catch (RuntimeException e) {
+            VaadinSession session = ui.getSession();
+            ErrorHandler errorHandler = session != null ? session.getErrorHandler() : null;
+            if (errorHandler != null) {
+                errorHandler.error(new ErrorEvent(e));
+            } else {
+                LoggerFactory.getLogger(SlideTabDispatcher.class).error("Scheduled SlideTab command failed", e);
+            }
+        }
+    }
+
+    private Object readResolve() {
+        // The queue is not serialized, and pending commands can not survive serialization anyway
+        return new SlideTabDispatcher(ui);
+    }
+}
@@ -0,0 +1,262 @@
+package org.vaadin.erik;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * Groups SlideTabs so that at most a given number of them are expanded at the same time. With the default maximum
+ * of one, the group behaves like an accordion.
+ * <p>
+ * When expanding a tab in the group would exceed the maximum, the tabs that have been expanded the longest are
+ * collapsed. The whole transition is sent to the client as a single call per UI, and reported as a single
+ * {@link SlideTabGroupEvent}. Each tab that was expanded or collapsed still fires its own {@link SlideToggleEvent}.
+ */
+public class SlideTabGroup implements Serializable {
+
+    private final List<SlideTab> tabs = new ArrayList<>();
+    // In the order the tabs were expanded, so the first one has been expanded the longest
+    private final LinkedHashSet<SlideTab> expandedTabs = new LinkedHashSet<>();
+    private final List<SerializableConsumer<SlideTabGroupEvent>> listeners = new ArrayList<>();
+
+    private int maxExpanded;
+
+    /**
+     * Creates an accordion group, in which at most one tab is expanded at a time
+     *
+     * @param tabs  the tabs to add to the group
+     */
+    public SlideTabGroup(SlideTab... tabs) {
+        this(1, tabs);
+    }
+
+    /**
+     * Creates a group in which at most the given number of tabs are expanded at a time
+     *
+     * @param maxExpanded   the maximum number of expanded tabs
+     * @param tabs          the tabs to add to the group
+     */
+    public SlideTabGroup(int maxExpanded, SlideTab... tabs) {
+        setMaxExpanded(maxExpanded);
+        add(tabs);
+    }
+
+    /**
+     * Adds tabs to the group, removing them from any group they belonged to. If this makes the group exceed the
+     * maximum number of expanded tabs, the excess tabs are collapsed.
+     */
+    public void add(SlideTab... tabs) {
+        for (SlideTab tab : tabs) {
+            Objects.requireNonNull(tab, "tab must not be null");
+            if (tab.getGroup() == this) {
+                continue;
+            }
+            if (tab.getGroup() != null) {
+                tab.getGroup().remove(tab);
+            }
+            this.tabs.add(tab);
+            tab.setGroup(this);
+            if (tab.isExpanded()) {
+                expandedTabs.add(tab);
+            }
+        }
+        transition(null, false, 0);
+    }
+
+    /**
+     * Removes tabs from the group
+     */
+    public void remove(SlideTab... tabs) {
+        for (SlideTab tab : tabs) {
+            if (tab.getGroup() == this) {
+                this.tabs.remove(tab);
+                expandedTabs.remove(tab);
+                tab.setGroup(null);
+            }
+        }
+    }
+
+    /**
+     * Returns the tabs in this group
+     */
+    public List<SlideTab> getTabs() {
+        return Collections.unmodifiableList(tabs);
+    }
+
+    /**
+     * Returns the expanded tabs in this group, in the order they were expanded
+     */
+    public List<SlideTab> getExpandedTabs() {
+        return Collections.unmodifiableList(new ArrayList<>(expandedTabs));
+    }
+
+    /**
+     * Sets the maximum number of tabs that can be expanded at the same time. If more tabs are currently expanded,
+     * the excess tabs are collapsed.
+     *
+     * @param maxExpanded   the maximum number of expanded tabs, at least 1
+     */
+    public void setMaxExpanded(int maxExpanded) {
+        if (maxExpanded < 1) {
+            throw new IllegalArgumentException("maxExpanded must be at least 1");
+        }
+        this.maxExpanded = maxExpanded;
+        transition(null, false, 0);
+    }
+
+    /**
+     * Returns the maximum number of tabs that can be expanded at the same time
+     */
+    public int getMaxExpanded() {
+        return maxExpanded;
+    }
+
+    /**
+     * Expands the given tab, collapsing the tabs that have been expanded the longest if needed
+     *
+     * @param tab   a tab in this group
+     */
+    public void expand(SlideTab tab) {
+        if (tab.getGroup() != this) {
+            throw new IllegalArgumentException("The tab does not belong to this group");
+        }
+        tab.expand();
+    }
+
+    /**
+     * Collapses all tabs in the group
+     */
+    public void collapseAll() {
+        transition(null, false, maxExpanded);
+    }
+
+    /**
+     * Adds a listener that will be notified when tabs in the group are expanded or collapsed by the group
+     */
+    public Registration addGroupListener(SerializableConsumer<SlideTabGroupEvent> listener) {
+        listeners.add(Objects.requireNonNull(listener, "listener must not be null"));
+        return () -> listeners.remove(listener);
+    }
+
+    /**
+     * Called by a tab in this group that should be expanded
+     */
+    void expand(SlideTab tab, boolean fromClient) {
+        transition(tab, fromClient, 1);
+    }
+
+    /**
+     * Called by a tab in this group that has been resized by dragging, which makes it the most recently expanded
+     * tab
+     */
+    void resized(SlideTab tab) {
+        if (expandedTabs.remove(tab)) {
+            expandedTabs.add(tab);
+        }
+    }
+
+    /**
+     * Called by a tab in this group that has been collapsed
+     */
+    void collapsed(SlideTab tab) {
+        expandedTabs.remove(tab);
+    }
+
+    /**
+     * Expands the given tab, and collapses as many of the tabs that have been expanded the longest as is needed
+     * to leave room for the given number of tabs
+     *
+     * @param expandTab     the tab to expand, or null to only collapse
+     * @param fromClient    true if the transition was triggered by the client
+     * @param reserved      the number of expanded tabs to leave room for
+     */
+    private void transition(SlideTab expandTab, boolean fromClient, int reserved) {
+        List<SlideTab> collapsed = new ArrayList<>();
+        Iterator<SlideTab> iterator = new ArrayList<>(expandedTabs).iterator();
+        while (expandedTabs.size() + reserved > maxExpanded && iterator.hasNext()) {
+            SlideTab tab = iterator.next();
+            // Tabs that can not be toggled stay expanded, even if that exceeds the maximum
+            if (tab.isToggleEnabled()) {
+                tab.collapseState();
+                collapsed.add(tab);
+            }
+        }
+        if (expandTab != null) {
+            expandTab.expandState();
+            expandedTabs.add(expandTab);
+        }
+        if (collapsed.isEmpty() && expandTab == null) {
+            return;
+        }
+
+        callClient(expandTab, collapsed);
+
+        if (expandTab != null) {
+            expandTab.fireToggleEvent(fromClient, true);
+        }
+        for (SlideTab tab : collapsed) {
+            tab.fireToggleEvent(fromClient, false);
+            tab.retainContent();
+        }
+
+        List<SlideTab> expanded = expandTab != null ?
+                Collections.singletonList(expandTab) : Collections.emptyList();
+        SlideTabGroupEvent event = new SlideTabGroupEvent(this, fromClient, expanded, collapsed);
+        new ArrayList<>(listeners).forEach(listener -> listener.accept(event));
+    }
+
+    /**
+     * Sends the transition to the client as a single call per UI
+     */
+    private void callClient(SlideTab expandTab, List<SlideTab> collapsed) {
+        // Elements can only be passed to the UI they are attached to
+        Map<UI, ClientCall> calls = new LinkedHashMap<>();
+        for (SlideTab tab : collapsed) {
+            appendCall(calls, tab, "collapse", tab.collapseArguments());
+        }
+        if (expandTab != null) {
+            appendCall(calls, expandTab, "expand", expandTab.expandArguments());
+        }
+        calls.forEach((ui, call) -> ui.getPage().executeJs(call.expression.toString(),
+                call.parameters.toArray(new Serializable[0])));
+    }
+
+    private void appendCall(Map<UI, ClientCall> calls, SlideTab tab, String function, Serializable[] arguments) {
+        Optional<UI> ui = tab.getUI();
+        if (!ui.isPresent()) {
+            // The tab syncs its state when it is attached
+            return;
+        }
+        ClientCall call = calls.computeIfAbsent(ui.get(), key -> new ClientCall());
+        String element = "$" + call.parameters.size();
+        call.parameters.add(tab.getElement());
+
+        // The element parameter is null on the client if it has not been rendered there
+        call.expression.append(element).append("&&").append(element).append('.').append(function).append('(');
+        for (int i = 0; i < arguments.length; i++) {
+            call.expression.append(i > 0 ? "," : "").append('$').append(call.parameters.size());
+            call.parameters.add(arguments[i]);
+        }
+        call.expression.append(");");
+    }
+
+    /**
+     * The expression and parameters of the call to a single UI
+     */
+    private static class ClientCall {
+
+        private final StringBuilder expression = new StringBuilder();
+        private final List<Serializable> parameters = new ArrayList<>();
+    }
+}
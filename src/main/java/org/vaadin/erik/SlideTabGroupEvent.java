@@ -0,0 +1,57 @@
+package org.vaadin.erik;
+
+import java.util.Collections;
+import java.util.EventObject;
+import java.util.List;
+
+/**
+ * Fired once for each transition of a {@link SlideTabGroup}, listing all tabs that were expanded and collapsed by it
+ */
+public class SlideTabGroupEvent extends EventObject {
+
+    private final boolean fromClient;
+    private final List<SlideTab> expandedTabs;
+    private final List<SlideTab> collapsedTabs;
+
+    /**
+     * Creates a new event
+     *
+     * @param source        the group
+     * @param fromClient    <code>true</code> if the transition was triggered by the client
+     * @param expandedTabs  the tabs that were expanded
+     * @param collapsedTabs the tabs that were collapsed
+     */
+    public SlideTabGroupEvent(SlideTabGroup source, boolean fromClient,
+                              List<SlideTab> expandedTabs, List<SlideTab> collapsedTabs) {
+        super(source);
+        this.fromClient = fromClient;
+        this.expandedTabs = Collections.unmodifiableList(expandedTabs);
+        this.collapsedTabs = Collections.unmodifiableList(collapsedTabs);
+    }
+
+    @Override
+    public SlideTabGroup getSource() {
+        return (SlideTabGroup) super.getSource();
+    }
+
+    /**
+     * Returns true if the transition was triggered by the client
+     */
+    public boolean isFromClient() {
+        return fromClient;
+    }
+
+    /**
+     * Returns the tabs that were expanded in the transition
+     */
+    public List<SlideTab> getExpandedTabs() {
+        return expandedTabs;
+    }
+
+    /**
+     * Returns the tabs that were collapsed in the transition
+     */
+    public List<SlideTab> getCollapsedTabs() {
+        return collapsedTabs;
+    }
+}
@@ -0,0 +1,77 @@
+package org.vaadin.erik;
+
+/**
+ * Receives measurements of SlideTab activity.
+ * <p>
+ * All methods do nothing by default. An implementation can be set for all tabs with
+ * {@link SlideTab#setDefaultMetrics(SlideTabMetrics)}, or for a single tab with
+ * {@link SlideTab#setMetrics(SlideTabMetrics)}. {@link MicrometerSlideTabMetrics} records them in a Micrometer
+ * registry.
+ * <p>
+ * The scheduled task methods may be called from any thread, as tasks can be scheduled and cancelled without holding
+ * the session lock. The other methods are called while holding the session lock.
+ */
+public interface SlideTabMetrics {
+
+    /**
+     * Called when a SlideTab has expanded or collapsed, and notified its toggle listeners
+     *
+     * @param slideTab      the SlideTab
+     * @param expand        true if it expanded
+     * @param fromClient    true if it was triggered by the client
+     */
+    default void toggled(SlideTab slideTab, boolean expand, boolean fromClient) {
+    }
+
+    /**
+     * Called when the client has reported a click outside an expanded SlideTab
+     *
+     * @param slideTab      the SlideTab
+     * @param ignored       true if the click did not collapse the panel
+     */
+    default void outsideClicked(SlideTab slideTab, boolean ignored) {
+    }
+
+    /**
+     * Called when a state change has been scheduled
+     */
+    default void taskScheduled(SlideTab slideTab) {
+    }
+
+    /**
+     * Called when a scheduled state change is run in the UI
+     */
+    default void taskFired(SlideTab slideTab) {
+    }
+
+    /**
+     * Called when a scheduled state change has been cancelled, replaced, or dropped because the SlideTab was detached
+     */
+    default void taskCancelled(SlideTab slideTab) {
+    }
+
+    /**
+     * Returns true if {@link #clientAcknowledged} should be called. Measuring it makes the client send a response
+     * for every expand and collapse call.
+     */
+    default boolean isMeasuringClientAcknowledgement() {
+        return false;
+    }
+
+    /**
+     * Called when the client has responded to an expand or collapse call
+     *
+     * @param slideTab      the SlideTab
+     * @param function      the name of the client function, "expand" or "collapse"
+     * @param nanos         the time from making the call until the response was received, in nanoseconds
+     */
+    default void clientAcknowledged(SlideTab slideTab, String function, long nanos) {
+    }
+
+    /**
+     * Returns an instance that records nothing
+     */
+    static SlideTabMetrics noop() {
+        return NoopSlideTabMetrics.INSTANCE;
+    }
+}
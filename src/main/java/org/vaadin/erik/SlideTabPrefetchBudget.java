@@ -0,0 +1,217 @@
+package org.vaadin.erik;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.UI;
+
+/**
+ * Bounds the number of SlideTabs in a UI that have prefetched their content, see
+ * {@link SlideTab#setPrefetchDelay(int)}.
+ * <p>
+ * A tab holds a slot of the budget from prefetching its content until it is expanded, its content is evicted, it is
+ * detached or it has held the slot for longer than {@link #getMaxHold()}. While all slots are held, further
+ * prefetches are refused and those tabs build their content when they are expanded, so sweeping the pointer across
+ * many tabs does not build all of them. A refused tab reports intent again once a slot has been freed.
+ * <p>
+ * The budget only limits how many prefetches start. The content of a tab that has released its slot is kept like
+ * any other content, which can be bounded with a {@link SlideTabContentBudget}.
+ * <p>
+ * Each UI gets a budget of {@value #DEFAULT_MAX_PREFETCHED} slots held for at most
+ * {@link #DEFAULT_MAX_HOLD} when it is first needed, unless one has been installed with {@link #install(UI)}.
+ */
+public class SlideTabPrefetchBudget implements Serializable {
+
+    /**
+     * The number of slots of the budget created for a UI that has none installed
+     */
+    public static final int DEFAULT_MAX_PREFETCHED = 3;
+
+    /**
+     * The time a tab holds a slot of a budget created with {@link #SlideTabPrefetchBudget(int)}
+     */
+    public static final Duration DEFAULT_MAX_HOLD = Duration.ofSeconds(30);
+
+    private final int maxPrefetched;
+    private final Duration maxHold;
+    // Insertion ordered, so the first entry has held its slot the longest
+    private final LinkedHashMap<SlideTab, Long> prefetched = new LinkedHashMap<>();
+    // Tabs that were refused, and are armed again when a slot is freed
+    private final Set<SlideTab> refused = new LinkedHashSet<>();
+
+    private long prefetchCount;
+    private long hitCount;
+    private long refusedCount;
+
+    /**
+     * Creates a budget whose slots are held for at most {@link #DEFAULT_MAX_HOLD}
+     *
+     * @param maxPrefetched     the maximum number of tabs that have prefetched content but have not been expanded
+     */
+    public SlideTabPrefetchBudget(int maxPrefetched) {
+        this(maxPrefetched, DEFAULT_MAX_HOLD);
+    }
+
+    /**
+     * Creates a budget
+     *
+     * @param maxPrefetched     the maximum number of tabs that have prefetched content but have not been expanded
+     * @param maxHold           the time after which a tab that has not been expanded releases its slot, or null
+     *                          to hold it until the tab is expanded
+     */
+    public SlideTabPrefetchBudget(int maxPrefetched, Duration maxHold) {
+        if (maxPrefetched < 0) {
+            throw new IllegalArgumentException("maxPrefetched must not be negative");
+        }
+        this.maxPrefetched = maxPrefetched;
+        this.maxHold = maxHold;
+    }
+
+    /**
+     * Installs this budget for all SlideTabs attached to the given UI
+     *
+     * @return this budget
+     */
+    public SlideTabPrefetchBudget install(UI ui) {
+        ComponentUtil.setData(Objects.requireNonNull(ui), SlideTabPrefetchBudget.class, this);
+        return this;
+    }
+
+    /**
+     * Returns the budget installed for the given UI, or null if there is none
+     */
+    static SlideTabPrefetchBudget find(UI ui) {
+        return ComponentUtil.getData(ui, SlideTabPrefetchBudget.class);
+    }
+
+    /**
+     * Returns the budget installed for the given UI, installing a default budget if there is none
+     */
+    public static SlideTabPrefetchBudget get(UI ui) {
+        SlideTabPrefetchBudget budget = find(ui);
+        if (budget == null) {
+            budget = new SlideTabPrefetchBudget(DEFAULT_MAX_PREFETCHED).install(ui);
+        }
+        return budget;
+    }
+
+    /**
+     * Returns the maximum number of tabs that have prefetched content but have not been expanded
+     */
+    public int getMaxPrefetched() {
+        return maxPrefetched;
+    }
+
+    /**
+     * Returns the time after which a tab that has not been expanded releases its slot, or null if it holds it until
+     * it is expanded
+     */
+    public Duration getMaxHold() {
+        return maxHold;
+    }
+
+    /**
+     * Returns the number of tabs that currently hold a slot
+     */
+    public int getPendingCount() {
+        releaseExpired();
+        return prefetched.size();
+    }
+
+    /**
+     * Returns the number of times content has been prefetched
+     */
+    public long getPrefetchCount() {
+        return prefetchCount;
+    }
+
+    /**
+     * Returns the number of times a tab with prefetched content has been expanded
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of times a prefetch has been refused because the budget has no free slots
+     */
+    public long getRefusedCount() {
+        return refusedCount;
+    }
+
+    /**
+     * Called when a tab is about to prefetch its content
+     *
+     * @return true if the tab may prefetch
+     */
+    boolean acquire(SlideTab tab) {
+        releaseExpired();
+        if (prefetched.size() >= maxPrefetched) {
+            refusedCount++;
+            refused.add(tab);
+            return false;
+        }
+        refused.remove(tab);
+        prefetched.put(tab, System.currentTimeMillis());
+        prefetchCount++;
+        return true;
+    }
+
+    /**
+     * Returns the time in milliseconds until the hold limit frees a slot, or -1 if it never does
+     */
+    long getMillisUntilReleased() {
+        if (maxHold == null || prefetched.isEmpty()) {
+            return -1;
+        }
+        long oldest = prefetched.values().iterator().next();
+        return Math.max(0, oldest + maxHold.toMillis() - System.currentTimeMillis());
+    }
+
+    /**
+     * Called when a tab with prefetched content has expanded
+     */
+    void expanded(SlideTab tab) {
+        if (prefetched.remove(tab) != null) {
+            hitCount++;
+            slotFreed();
+        }
+        refused.remove(tab);
+    }
+
+    /**
+     * Called when a tab no longer has prefetched content, or is detached
+     */
+    void released(SlideTab tab) {
+        refused.remove(tab);
+        if (prefetched.remove(tab) != null) {
+            slotFreed();
+        }
+    }
+
+    private void releaseExpired() {
+        if (maxHold == null) {
+            return;
+        }
+        long threshold = System.currentTimeMillis() - maxHold.toMillis();
+        Iterator<Long> iterator = prefetched.values().iterator();
+        while (iterator.hasNext() && iterator.next() <= threshold) {
+            // Entries are in acquire order, so the rest are more recent
+            iterator.remove();
+        }
+    }
+
+    private void slotFreed() {
+        List<SlideTab> armed = new ArrayList<>(refused);
+        refused.clear();
+        armed.forEach(SlideTab::armPrefetch);
+    }
+}
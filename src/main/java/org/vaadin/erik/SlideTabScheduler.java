@@ -0,0 +1,64 @@
+package org.vaadin.erik;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the delayed tasks of {@link SlideTab#scheduleExpand(int)}, {@link SlideTab#scheduleCollapse(int)} and
+ * {@link SlideTab#scheduleToggle(int)}.
+ * <p>
+ * By default all SlideTabs share a single timer thread, see {@link #shared()}. A different scheduler can be set
+ * for all tabs with {@link SlideTab#setDefaultScheduler(SlideTabScheduler)}, or for a single tab with
+ * {@link SlideTab#setScheduler(SlideTabScheduler)}.
+ */
+@FunctionalInterface
+public interface SlideTabScheduler {
+
+    /**
+     * Schedules the task to run once after the given delay
+     *
+     * @param task          the task to run
+     * @param delayMillis   millis in future the task will run
+     * @return              a future that cancels the task if it has not yet started
+     */
+    Future<?> schedule(Runnable task, long delayMillis);
+
+    /**
+     * Returns the scheduler shared by all SlideTabs. A single daemon thread waits for the delays, and hands the tasks
+     * that are due over to a small pool of daemon threads that run them, so that a task waiting for a session lock
+     * does not hold up the tasks of other sessions.
+     */
+    static SlideTabScheduler shared() {
+        return SharedSlideTabScheduler.INSTANCE;
+    }
+
+    /**
+     * Returns a scheduler that both waits and runs the tasks on the given executor service
+     */
+    static SlideTabScheduler of(ScheduledExecutorService executorService) {
+        Objects.requireNonNull(executorService, "executorService must not be null");
+        return (task, delayMillis) -> executorService.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns a scheduler that waits on the shared timer thread, and hands the tasks over to the given executor
+     * when they are due. This can for instance be used with a virtual-thread-per-task executor.
+     */
+    static SlideTabScheduler of(Executor executor) {
+        return of(SharedSlideTabScheduler.INSTANCE.getTimer(), executor);
+    }
+
+    /**
+     * Returns a scheduler that waits on the given executor service, and hands the tasks over to the given executor
+     * when they are due.
+     */
+    static SlideTabScheduler of(ScheduledExecutorService executorService, Executor executor) {
+        Objects.requireNonNull(executorService, "executorService must not be null");
+        Objects.requireNonNull(executor, "executor must not be null");
+        return (task, delayMillis) -> executorService.schedule(
+                () -> executor.execute(task), delayMillis, TimeUnit.MILLISECONDS);
+    }
+}
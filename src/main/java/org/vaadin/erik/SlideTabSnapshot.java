@@ -0,0 +1,72 @@
+package org.vaadin.erik;
+
+import java.io.Serializable;
+
+/**
+ * An immutable snapshot of the state of a {@link SlideTab}, see {@link SlideTab#getSnapshot()}.
+ * <p>
+ * The snapshot is published whenever the state changes, so it can be read from any thread without holding the
+ * session lock, and its values are always consistent with each other.
+ */
+public final class SlideTabSnapshot implements Serializable {
+
+    // One instance per combination of values, so publishing a snapshot does not allocate
+    private static final SlideTabSnapshot[] INSTANCES = new SlideTabSnapshot[16];
+
+    static {
+        for (int i = 0; i < INSTANCES.length; i++) {
+            INSTANCES[i] = new SlideTabSnapshot((i & 1) != 0, (i & 2) != 0, (i & 4) != 0, (i & 8) != 0);
+        }
+    }
+
+    private final boolean expanded;
+    private final boolean toggleEnabled;
+    private final boolean tabVisible;
+    private final boolean contentInitialized;
+
+    private SlideTabSnapshot(boolean expanded, boolean toggleEnabled, boolean tabVisible,
+                             boolean contentInitialized) {
+        this.expanded = expanded;
+        this.toggleEnabled = toggleEnabled;
+        this.tabVisible = tabVisible;
+        this.contentInitialized = contentInitialized;
+    }
+
+    static SlideTabSnapshot of(boolean expanded, boolean toggleEnabled, boolean tabVisible,
+                               boolean contentInitialized) {
+        return INSTANCES[(expanded ? 1 : 0) | (toggleEnabled ? 2 : 0) | (tabVisible ? 4 : 0) |
+                (contentInitialized ? 8 : 0)];
+    }
+
+    /**
+     * Returns true if the panel was expanded or expanding
+     */
+    public boolean isExpanded() {
+        return expanded;
+    }
+
+    /**
+     * Returns true if the panel could be expanded and collapsed
+     */
+    public boolean isToggleEnabled() {
+        return toggleEnabled;
+    }
+
+    /**
+     * Returns true if the tab was visible
+     */
+    public boolean isTabVisible() {
+        return tabVisible;
+    }
+
+    /**
+     * Returns true if the content of the panel had been created
+     */
+    public boolean isContentInitialized() {
+        return contentInitialized;
+    }
+
+    private Object readResolve() {
+        return of(expanded, toggleEnabled, tabVisible, contentInitialized);
+    }
+}
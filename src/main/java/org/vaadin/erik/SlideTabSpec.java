@@ -0,0 +1,157 @@
+package org.vaadin.erik;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentEventListener;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.function.SerializableSupplier;
+
+/**
+ * An immutable configuration for creating any number of identically configured SlideTabs, see
+ * {@link SlideTabBuilder#buildSpec()}.
+ * <p>
+ * Everything that does not depend on the individual tab is computed once, when the spec is built: the class names,
+ * the z-index style and the element properties that differ from the defaults of the client. Creating a tab from a
+ * spec only applies those, and registers the same listener instances to every tab.
+ */
+public final class SlideTabSpec implements Serializable {
+
+    final SlideMode mode;
+    final String caption;
+    final boolean expanded;
+    final int animationDuration;
+    final SlideAnimation animation;
+    final SlideCollapsedRendering collapsedRendering;
+    final int pixel;
+    final boolean autoSize;
+    final boolean reportMeasuredSize;
+    final int zIndex;
+    final boolean autoCollapseSlider;
+    final boolean tabVisible;
+    final boolean clientSideToggle;
+    final boolean dragResize;
+    final int coalescingWindow;
+    final boolean clientSideScheduling;
+    final boolean deferContent;
+    final int prefetchDelay;
+    final List<ComponentEventListener<SlideToggleEvent>> listeners;
+
+    private final List<String> classNames;
+    private final String zIndexStyle;
+    private final String[] propertyNames;
+    private final Serializable[] propertyValues;
+
+    SlideTabSpec(SlideTabBuilder builder) {
+        mode = builder.mode;
+        caption = builder.caption;
+        expanded = builder.expanded;
+        animationDuration = builder.animationDuration;
+        animation = builder.animation;
+        collapsedRendering = builder.collapsedRendering;
+        pixel = builder.pixel;
+        autoSize = builder.autoSize;
+        reportMeasuredSize = builder.reportMeasuredSize;
+        zIndex = builder.zIndex;
+        autoCollapseSlider = builder.autoCollapseSlider;
+        tabVisible = builder.tabVisible;
+        clientSideToggle = builder.clientSideToggle;
+        dragResize = builder.dragResize;
+        coalescingWindow = Math.max(0, builder.coalescingWindow);
+        clientSideScheduling = builder.clientSideScheduling;
+        deferContent = builder.deferContent;
+        prefetchDelay = Math.max(0, builder.prefetchDelay);
+        listeners = builder.listeners != null ?
+                Collections.unmodifiableList(new ArrayList<>(builder.listeners)) : Collections.emptyList();
+
+        List<String> classNames = new ArrayList<>();
+        classNames.add(mode.toString().toLowerCase());
+        if (builder.tabPosition != null) {
+            classNames.add(builder.tabPosition.name().toLowerCase());
+        }
+        if (builder.styles != null) {
+            classNames.addAll(builder.styles);
+        }
+        this.classNames = Collections.unmodifiableList(classNames);
+        zIndexStyle = String.valueOf(zIndex);
+
+        // Properties that are left out have the same value as the defaults in slide-tab.js
+        List<String> names = new ArrayList<>();
+        List<Serializable> values = new ArrayList<>();
+        addProperty(names, values, "tabSize", builder.tabSize, 40);
+        addProperty(names, values, "vertical", mode.isVertical(), false);
+        addProperty(names, values, "animationDuration", animationDuration, 0);
+        addProperty(names, values, "animation", animation.getClientValue(), SlideAnimation.SIZE.getClientValue());
+        addProperty(names, values, "collapsedRendering", collapsedRendering.getClientValue(),
+                SlideCollapsedRendering.VISIBLE.getClientValue());
+        addProperty(names, values, "fixedContentSize", pixel, -1);
+        addProperty(names, values, "autoSize", autoSize, false);
+        addProperty(names, values, "reportMeasuredSize", reportMeasuredSize, false);
+        addProperty(names, values, "closingOnOutsideClick", autoCollapseSlider, false);
+        addProperty(names, values, "tabVisible", tabVisible, true);
+        addProperty(names, values, "clientSideToggle", clientSideToggle, false);
+        addProperty(names, values, "dragResize", dragResize, false);
+        addProperty(names, values, "prefetchDelay", prefetchDelay, 0);
+        propertyNames = names.toArray(new String[0]);
+        propertyValues = values.toArray(new Serializable[0]);
+    }
+
+    private static void addProperty(List<String> names, List<Serializable> values, String name,
+                                    Serializable value, Serializable clientDefault) {
+        if (!value.equals(clientDefault)) {
+            names.add(name);
+            values.add(value);
+        }
+    }
+
+    /**
+     * Creates a SlideTab with the given content and the caption of this spec
+     */
+    public SlideTab create(Component content) {
+        return new SlideTab(this, content, null, caption);
+    }
+
+    /**
+     * Creates a SlideTab with the given content and caption
+     */
+    public SlideTab create(Component content, String caption) {
+        return new SlideTab(this, content, null, caption);
+    }
+
+    /**
+     * Creates a SlideTab whose content is created by the given supplier the first time it is expanded, with the
+     * caption of this spec
+     */
+    public SlideTab create(SerializableSupplier<? extends Component> contentSupplier) {
+        return new SlideTab(this, null, contentSupplier, caption);
+    }
+
+    /**
+     * Creates a SlideTab whose content is created by the given supplier the first time it is expanded, with the
+     * given caption
+     */
+    public SlideTab create(SerializableSupplier<? extends Component> contentSupplier, String caption) {
+        return new SlideTab(this, null, contentSupplier, caption);
+    }
+
+    /**
+     * Applies the precomputed class names, style and properties to the element of a new SlideTab
+     */
+    void applyTo(Element element) {
+        element.getClassList().addAll(classNames);
+        element.getStyle().set("z-index", zIndexStyle);
+        for (int i = 0; i < propertyNames.length; i++) {
+            Serializable value = propertyValues[i];
+            if (value instanceof Boolean) {
+                element.setProperty(propertyNames[i], (Boolean) value);
+            } else if (value instanceof Number) {
+                element.setProperty(propertyNames[i], ((Number) value).doubleValue());
+            } else {
+                element.setProperty(propertyNames[i], (String) value);
+            }
+        }
+    }
+}
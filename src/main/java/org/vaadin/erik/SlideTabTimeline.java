@@ -0,0 +1,108 @@
+package org.vaadin.erik;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import com.vaadin.flow.function.SerializableConsumer;
+
+/**
+ * A sequence of steps to apply to a {@link SlideTab} at given times, see
+ * {@link SlideTab#scheduleTimeline(SlideTabTimeline)}.
+ * <p>
+ * The times are in milliseconds from when the timeline is scheduled. A timeline holds no state of its own, so the
+ * same timeline can be scheduled for any number of tabs.
+ */
+public class SlideTabTimeline implements Serializable {
+
+    private final List<Step> steps = new ArrayList<>();
+
+    /**
+     * Adds a step that expands the panel
+     *
+     * @param atMillis  millis after scheduling the step will happen
+     * @return this timeline
+     */
+    public SlideTabTimeline expand(int atMillis) {
+        return step(atMillis, SlideTab::expand, "expand", true);
+    }
+
+    /**
+     * Adds a step that collapses the panel
+     *
+     * @param atMillis  millis after scheduling the step will happen
+     * @return this timeline
+     */
+    public SlideTabTimeline collapse(int atMillis) {
+        return step(atMillis, SlideTab::collapse, "collapse", true);
+    }
+
+    /**
+     * Adds a step that expands the panel if it is collapsed, and collapses it if it is expanded
+     *
+     * @param atMillis  millis after scheduling the step will happen
+     * @return this timeline
+     */
+    public SlideTabTimeline toggle(int atMillis) {
+        return step(atMillis, SlideTab::toggle, "toggle", true);
+    }
+
+    /**
+     * Adds a step that expands or collapses the panel
+     *
+     * @param atMillis  millis after scheduling the step will happen
+     * @param expanded  true to expand
+     * @param animated  should be animated or not
+     * @return this timeline
+     */
+    public SlideTabTimeline expanded(int atMillis, boolean expanded, boolean animated) {
+        return step(atMillis, slideTab -> slideTab.setExpanded(expanded, animated),
+                expanded ? "expand" : "collapse", animated);
+    }
+
+    /**
+     * Adds a step that runs an arbitrary action on the tab while holding the session lock
+     *
+     * @param atMillis  millis after scheduling the step will happen
+     * @param action    the action to run
+     * @return this timeline
+     */
+    public SlideTabTimeline step(int atMillis, SerializableConsumer<SlideTab> action) {
+        return step(atMillis, action, null, true);
+    }
+
+    private SlideTabTimeline step(int atMillis, SerializableConsumer<SlideTab> action, String clientAction,
+                                  boolean animated) {
+        if (atMillis < 0) {
+            throw new IllegalArgumentException("atMillis must not be negative");
+        }
+        steps.add(new Step(atMillis, Objects.requireNonNull(action, "action must not be null"), clientAction,
+                animated));
+        return this;
+    }
+
+    /**
+     * Returns the steps of this timeline, in the order they were added
+     */
+    List<Step> getSteps() {
+        return Collections.unmodifiableList(steps);
+    }
+
+    static class Step implements Serializable {
+
+        final int atMillis;
+        final SerializableConsumer<SlideTab> action;
+        // The equivalent action for client side scheduling, null if there is none
+        final String clientAction;
+        final boolean animated;
+
+        private Step(int atMillis, SerializableConsumer<SlideTab> action, String clientAction, boolean animated) {
+            this.atMillis = atMillis;
+            this.action = action;
+            this.clientAction = clientAction;
+            this.animated = animated;
+        }
+    }
+}
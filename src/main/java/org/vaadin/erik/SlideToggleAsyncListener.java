@@ -0,0 +1,26 @@
+package org.vaadin.erik;
+
+import java.io.Serializable;
+
+import com.vaadin.flow.server.Command;
+
+/**
+ * A toggle listener that runs without holding the session lock, see
+ * {@link SlideTab#addAsyncToggleListener(SlideToggleAsyncListener)}.
+ * <p>
+ * The listener runs on the listener executor of the SlideTab, so it must not read or change any components. It
+ * returns the changes to make to the UI instead, which are applied with {@link com.vaadin.flow.component.UI#access}
+ * once it has finished.
+ */
+@FunctionalInterface
+public interface SlideToggleAsyncListener extends Serializable {
+
+    /**
+     * Called on the listener executor when the panel has expanded or collapsed
+     *
+     * @param event     the toggle event
+     * @return          a command that updates the UI while holding the session lock, or null if there is nothing
+     *                  to update
+     */
+    Command onToggle(SlideToggleEvent event);
+}
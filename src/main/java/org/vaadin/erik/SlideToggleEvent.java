@@ -9,6 +9,7 @@ import com.vaadin.flow.component.ComponentEvent;
 public class SlideToggleEvent extends ComponentEvent<SlideTab> {
 
     private boolean expand;
+    private int size;
 
     /**
      * Creates a new event using the given source and indicator whether the
@@ -18,8 +19,20 @@ public class SlideToggleEvent extends ComponentEvent<SlideTab> {
      * @param fromClient <code>true</code> if the event originated from the client
      */
     public SlideToggleEvent(SlideTab source, boolean fromClient, boolean expand) {
+        this(source, fromClient, expand, 0);
+    }
+
+    /**
+     * Creates a new event for a panel that was resized by dragging the tab
+     *
+     * @param source     the source component
+     * @param fromClient <code>true</code> if the event originated from the client
+     * @param size       the size in pixels the panel settled at, or 0 if it follows the size of its content
+     */
+    public SlideToggleEvent(SlideTab source, boolean fromClient, boolean expand, int size) {
         super(source, fromClient);
         this.expand = expand;
+        this.size = size;
     }
 
     @Override
@@ -30,4 +43,12 @@ public class SlideToggleEvent extends ComponentEvent<SlideTab> {
     public boolean isExpand() {
         return expand;
     }
+
+    /**
+     * Returns the size in pixels an expanded panel settled at after the tab was dragged, or 0 if the panel was not
+     * dragged to a size of its own
+     */
+    public int getSize() {
+        return size;
+    }
 }
@@ -0,0 +1,116 @@
+package org.vaadin.erik;
+
+import java.io.Serializable;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+
+/**
+ * Options for a single expand or collapse of a {@link SlideTab}, see {@link SlideTab#expand(SlideTransition)},
+ * {@link SlideTab#collapse(SlideTransition)} and {@link SlideTab#setExpanded(boolean, SlideTransition)}.
+ * <p>
+ * The options are sent along with the expand or collapse itself, and only apply to that transition. Options that
+ * are not set fall back to what is configured for the SlideTab. Instances are immutable, the {@code with} methods
+ * return a copy.
+ */
+public final class SlideTransition implements Serializable {
+
+    private static final SlideTransition ANIMATED = new SlideTransition(true, -1, null, 0);
+    private static final SlideTransition INSTANT = new SlideTransition(false, -1, null, 0);
+
+    private final boolean animated;
+    private final int duration;
+    private final String easing;
+    private final int size;
+
+    private SlideTransition(boolean animated, int duration, String easing, int size) {
+        this.animated = animated;
+        this.duration = duration;
+        this.easing = easing;
+        this.size = size;
+    }
+
+    /**
+     * Returns a transition that is animated as configured for the SlideTab
+     */
+    public static SlideTransition animated() {
+        return ANIMATED;
+    }
+
+    /**
+     * Returns a transition that is not animated
+     */
+    public static SlideTransition instant() {
+        return INSTANT;
+    }
+
+    /**
+     * Returns a copy of this transition with the given animation duration
+     *
+     * @param duration  duration in milliseconds, or -1 to use the duration of the SlideTab
+     */
+    public SlideTransition withDuration(int duration) {
+        return new SlideTransition(animated, Math.max(-1, duration), easing, size);
+    }
+
+    /**
+     * Returns a copy of this transition with the given easing
+     *
+     * @param easing    a CSS transition timing function such as {@code ease-out}, or null for the default
+     */
+    public SlideTransition withEasing(String easing) {
+        return new SlideTransition(animated, duration, easing, size);
+    }
+
+    /**
+     * Returns a copy of this transition that expands the panel to the given size. Ignored when collapsing.
+     *
+     * @param size      size in pixels, or 0 to use the fixed content size or the size of the content
+     */
+    public SlideTransition withSize(int size) {
+        return new SlideTransition(animated, duration, easing, Math.max(0, size));
+    }
+
+    /**
+     * Returns false if the transition happens without animation
+     */
+    public boolean isAnimated() {
+        return animated;
+    }
+
+    /**
+     * Returns the animation duration in milliseconds, or -1 if the duration of the SlideTab is used
+     */
+    public int getDuration() {
+        return duration;
+    }
+
+    /**
+     * Returns the CSS transition timing function, or null if the default is used
+     */
+    public String getEasing() {
+        return easing;
+    }
+
+    /**
+     * Returns the size in pixels the panel expands to, or 0 if it is determined as configured for the SlideTab
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the options for the client side expand and collapse functions
+     */
+    JsonObject toJson() {
+        JsonObject options = Json.createObject();
+        options.put("animated", animated);
+        if (duration >= 0) {
+            options.put("duration", duration);
+        }
+        if (easing != null) {
+            options.put("easing", easing);
+        }
+        return options;
+    }
+}
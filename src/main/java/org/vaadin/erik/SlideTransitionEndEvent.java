@@ -0,0 +1,42 @@
+package org.vaadin.erik;
+
+import com.vaadin.flow.component.ComponentEvent;
+import com.vaadin.flow.component.DomEvent;
+import com.vaadin.flow.component.EventData;
+
+/**
+ * Fired when the client has finished animating the panel of a {@link SlideTab} open or closed.
+ * <p>
+ * Heavy work such as loading data into the panel can be started from this event instead of a
+ * {@link SlideToggleEvent}, so that it does not compete with the animation.
+ */
+@DomEvent("slide-transition-end")
+public class SlideTransitionEndEvent extends ComponentEvent<SlideTab> {
+
+    private final boolean expanded;
+
+    /**
+     * Creates a new event
+     *
+     * @param source        the source component
+     * @param fromClient    <code>true</code> if the event originated from the client
+     * @param expanded      <code>true</code> if the panel finished expanding, <code>false</code> if collapsing
+     */
+    public SlideTransitionEndEvent(SlideTab source, boolean fromClient,
+                                   @EventData("event.detail.expanded") boolean expanded) {
+        super(source, fromClient);
+        this.expanded = expanded;
+    }
+
+    @Override
+    public SlideTab getSource() {
+        return super.getSource();
+    }
+
+    /**
+     * Returns true if the panel finished expanding, false if it finished collapsing
+     */
+    public boolean isExpanded() {
+        return expanded;
+    }
+}
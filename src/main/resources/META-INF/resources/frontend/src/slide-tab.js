@@ -1,168 +1,348 @@
-import {PolymerElement, html} from '@polymer/polymer';
-import { ThemableMixin } from '@vaadin/vaadin-themable-mixin/vaadin-themable-mixin.js';
-import '@vaadin/vaadin-icons/vaadin-icons';
+import { LitElement, html, css } from 'lit-element';
+import { styleMap } from 'lit-html/directives/style-map.js';
 
-class SlideTab extends ThemableMixin(PolymerElement) {
+/**
+ * The expanded instances that should collapse when clicking outside them. A single document listener is shared by
+ * all of them, and only registered while there are any.
+ */
+const outsideClickInstances = new Set();
+
+function onDocumentClick(event) {
+    const path = event.composedPath();
+    Array.from(outsideClickInstances)
+        .filter(instance => !path.includes(instance))
+        .forEach(instance => instance.$server.onOutsideClicked());
+}
+
+function updateOutsideClickListener(instance) {
+    const listening = instance.isConnected && instance.closingOnOutsideClick &&
+        instance.classList.contains("expanded");
+    if (listening && !outsideClickInstances.has(instance)) {
+        if (outsideClickInstances.size === 0) {
+            document.addEventListener("click", onDocumentClick);
+        }
+        outsideClickInstances.add(instance);
+    } else if (!listening && outsideClickInstances.delete(instance) && outsideClickInstances.size === 0) {
+        document.removeEventListener("click", onDocumentClick);
+    }
+}
+
+/**
+ * Observes the size of the content of all instances in auto size mode
+ */
+const resizeObserver = new ResizeObserver(entries =>
+    entries.forEach(entry => entry.target.getRootNode().host._onContentResize(entry)));
+
+class SlideTab extends LitElement {
     static get is() {
         return 'slide-tab'
     }
 
-    static get template() {
-        return html`
-        <style>
-            :host {
-                --slide-tab-background-color: var(--lumo-primary-color, blue);
-                --slide-tab-color: white;
-
-                display: flex;
-                align-items: center;
-                box-sizing: border-box;
-                position: absolute;
-                color: var(--slide-tab-color);
-                top: 0;
-                left: 0;
-                right: 0;
-                bottom: 0;
-            }
-            :host(.bottom) {
-                flex-flow: column;
-                top: auto;
-            }
-            :host(.top) {
-                flex-flow: column-reverse;
-                bottom: auto;
-            }
-            :host(.left) {
-                flex-flow: row-reverse;
-                right: auto;
-            }
-            :host(.right) {
-                flex-flow: row;
-                left: auto;
-            }
+    static get styles() {
+        // Shared by all instances through adopted stylesheets where supported
+        return css`
+        :host {
+            --slide-tab-background-color: var(--lumo-primary-color, blue);
+            --slide-tab-color: white;
 
-            :host(.left) #content, :host(.right) #content {
-                width: 0;
-            }
-            :host(.top) #content, :host(.bottom) #content {
-                height: 0;
-            }
+            display: flex;
+            align-items: center;
+            box-sizing: border-box;
+            position: absolute;
+            color: var(--slide-tab-color);
+            top: 0;
+            left: 0;
+            right: 0;
+            bottom: 0;
+        }
+        :host(.bottom) {
+            flex-flow: column;
+            top: auto;
+        }
+        :host(.top) {
+            flex-flow: column-reverse;
+            bottom: auto;
+        }
+        :host(.left) {
+            flex-flow: row-reverse;
+            right: auto;
+        }
+        :host(.right) {
+            flex-flow: row;
+            left: auto;
+        }
 
-            :host(.left) #tab {
-                border-radius: 0 0 var(--lumo-border-radius) var(--lumo-border-radius);
-                transform-origin: 0 50%;
-                transform: rotate(-90deg) translate(-50%, 50%);
-                left: 100%;
-            }
-            :host(.right) #tab {
-                border-radius: var(--lumo-border-radius) var(--lumo-border-radius) 0 0;
-                transform-origin: 100% 50%;
-                transform: rotate(-90deg) translate(50%, -50%);
-                right: 100%;
-            }
-            :host(.top) #tab {
-                border-radius: 0 0 var(--lumo-border-radius) var(--lumo-border-radius);
-                top: 100%;
-            }
-            :host(.bottom) #tab {
-                border-radius: var(--lumo-border-radius) var(--lumo-border-radius) 0 0;
-                bottom: 100%;
-            }
+        :host(.left) #content, :host(.right) #content {
+            width: 0;
+        }
+        :host(.top) #content, :host(.bottom) #content {
+            height: 0;
+        }
 
-            /* Styles for tab positioning BEGINNING */
-            :host(.beginning.left) #tab {
-                transform-origin: 0 100%;
-                transform: rotate(-90deg) translate(0, 100%);
-                bottom: 0;
-            }
-            :host(.beginning.right) #tab {
-                transform-origin: 100% 100%;
-                transform: rotate(-90deg) translate(100%, 0);
-                bottom: 0;
-            }
-            :host(.beginning.top) #tab, :host(.beginning.bottom) #tab {
-                left: 0;
-            }
-            /* Styles for tab positioning END */
-            :host(.end.left) #tab {
-                transform-origin: 0 0;
-                transform: rotate(-90deg) translate(-100%, 0%);
-                top: 0;
-            }
-            :host(.end.right) #tab {
-                transform-origin: 100% 0;
-                transform: rotate(-90deg) translate(0, -100%);
-                top: 0;
-            }
-            :host(.end.top) #tab, :host(.end.bottom) #tab {
-                right: 0;
-            }
+        :host(.left) #tab {
+            border-radius: 0 0 var(--lumo-border-radius) var(--lumo-border-radius);
+            transform-origin: 0 50%;
+            transform: rotate(-90deg) translate(-50%, 50%);
+            left: 100%;
+        }
+        :host(.right) #tab {
+            border-radius: var(--lumo-border-radius) var(--lumo-border-radius) 0 0;
+            transform-origin: 100% 50%;
+            transform: rotate(-90deg) translate(50%, -50%);
+            right: 100%;
+        }
+        :host(.top) #tab {
+            border-radius: 0 0 var(--lumo-border-radius) var(--lumo-border-radius);
+            top: 100%;
+        }
+        :host(.bottom) #tab {
+            border-radius: var(--lumo-border-radius) var(--lumo-border-radius) 0 0;
+            bottom: 100%;
+        }
 
-            #tab {
-                position: absolute;
-                display: flex;
-                align-items: center;
-                min-width: 120px;
-                background-color: var(--slide-tab-background-color);
-                white-space: nowrap;
-                padding: var(--lumo-space-xs) var(--lumo-space-m);
-            }
-            #content {
-                background-color: var(--slide-tab-background-color);
-                align-self: stretch;
-                position: relative;
-                overflow: hidden;
-            }
-            #content ::slotted(*) {
-                display: inline-block;
-                padding: var(--lumo-space-m);
-            }
-            #tab::after, :host::after {
-                content: "";
-                position: absolute;
-                top: 0; left: 0; bottom: 0; right: 0;
-                z-index: -1;
-                box-shadow: var(--lumo-box-shadow-m);
-            }
+        /* Styles for tab positioning BEGINNING */
+        :host(.beginning.left) #tab {
+            transform-origin: 0 100%;
+            transform: rotate(-90deg) translate(0, 100%);
+            bottom: 0;
+        }
+        :host(.beginning.right) #tab {
+            transform-origin: 100% 100%;
+            transform: rotate(-90deg) translate(100%, 0);
+            bottom: 0;
+        }
+        :host(.beginning.top) #tab, :host(.beginning.bottom) #tab {
+            left: 0;
+        }
+        /* Styles for tab positioning END */
+        :host(.end.left) #tab {
+            transform-origin: 0 0;
+            transform: rotate(-90deg) translate(-100%, 0%);
+            top: 0;
+        }
+        :host(.end.right) #tab {
+            transform-origin: 100% 0;
+            transform: rotate(-90deg) translate(0, -100%);
+            top: 0;
+        }
+        :host(.end.top) #tab, :host(.end.bottom) #tab {
+            right: 0;
+        }
 
-            #expand, #collapse {
-                padding-left: 1em;
-                margin-left: auto;
-            }
-            #collapse, :host(.expanded) #expand {
-                display: none;
-            }
-            :host(.expanded) #collapse, #expand {
-                display: inline-block;
-            }
-        </style>
+        #tab {
+            position: absolute;
+            display: flex;
+            align-items: center;
+            min-width: 120px;
+            background-color: var(--slide-tab-background-color);
+            white-space: nowrap;
+            padding: var(--lumo-space-xs) var(--lumo-space-m);
+        }
+        #content {
+            background-color: var(--slide-tab-background-color);
+            align-self: stretch;
+            position: relative;
+            overflow: hidden;
+            transition: height var(--slide-tab-animation-duration, 0ms) var(--slide-tab-animation-easing, ease),
+                width var(--slide-tab-animation-duration, 0ms) var(--slide-tab-animation-easing, ease);
+        }
+        :host(.left) #sizer, :host(.right) #sizer {
+            width: min-content;
+        }
+        #content ::slotted(*) {
+            display: inline-block;
+            padding: var(--lumo-space-m);
+        }
+        #tab::after, :host::after {
+            content: "";
+            position: absolute;
+            top: 0; left: 0; bottom: 0; right: 0;
+            z-index: -1;
+            box-shadow: var(--lumo-box-shadow-m);
+        }
 
-        <div part="tab" id="tab" on-click="toggle">
-            [[caption]]
+        /* Transform animation, the panel keeps its size and the whole host slides in and out of view */
+        :host([animation="transform"]) {
+            transition: transform var(--slide-tab-animation-duration, 0ms) var(--slide-tab-animation-easing, ease);
+            will-change: transform;
+        }
+        :host([animation="transform"].top:not(.expanded)) {
+            transform: translateY(-100%);
+        }
+        :host([animation="transform"].bottom:not(.expanded)) {
+            transform: translateY(100%);
+        }
+        :host([animation="transform"].left:not(.expanded)) {
+            transform: translateX(-100%);
+        }
+        :host([animation="transform"].right:not(.expanded)) {
+            transform: translateX(100%);
+        }
+        :host([animation="transform"]) #content {
+            /* Hide the collapsed panel once it has slid out of view */
+            visibility: hidden;
+            transition: visibility 0s linear var(--slide-tab-animation-duration, 0ms);
+        }
+        :host([animation="transform"].expanded) #content {
+            visibility: visible;
+            transition-delay: 0s;
+        }
+
+        /* Collapsed rendering policies, the content stays rendered while it is dragged and until the collapse
+           transition has ended */
+        :host([collapsed-rendering="content_visibility"]:not(.expanded):not(.collapsing):not(.dragging)) #sizer {
+            content-visibility: hidden;
+        }
+        :host([collapsed-rendering="hidden"]:not(.expanded):not(.collapsing):not(.dragging)) #sizer {
+            display: none;
+        }
+
+        /* Default icons, the same size as an iron-icon */
+        .icon {
+            display: block;
+            width: 24px;
+            height: 24px;
+            fill: currentColor;
+        }
+
+        /* Keeps touch screens from scrolling while the tab is dragged */
+        :host([drag-resize]) #tab {
+            touch-action: none;
+        }
+
+        #expand, #collapse {
+            padding-left: 1em;
+            margin-left: auto;
+        }
+        #collapse, :host(.expanded) #expand {
+            display: none;
+        }
+        :host(.expanded) #collapse, #expand {
+            display: inline-block;
+        }
+        `;
+    }
+
+    render() {
+        const tabStyle = {
+            height: this.tabSize + "px",
+            // Setting the hidden attribute does nothing for the flex tab
+            display: this.tabVisible === false ? "none" : "flex"
+        };
+        return html`
+        <div part="tab" id="tab" style="${styleMap(tabStyle)}" @click="${this._onTabClick}"
+             @pointerenter="${this._onTabPointerEnter}" @pointerleave="${this._onTabPointerLeave}"
+             @pointerdown="${this._onTabPointerDown}" @pointermove="${this._onTabPointerMove}"
+             @pointerup="${this._onTabPointerUp}" @pointercancel="${this._onTabPointerUp}">
+            ${this.caption}
             <div id="expand">
                 <slot name="expand">
-                    <iron-icon icon="vaadin:vaadin:plus-circle"></iron-icon>
+                    <svg class="icon" viewBox="0 0 16 16" aria-hidden="true">
+                        <path d="M8 0c-4.4 0-8 3.6-8 8s3.6 8 8 8 8-3.6 8-8-3.6-8-8-8zM13 9h-4v4h-2v-4h-4v-2h4v-4h2v4h4v2z"></path>
+                    </svg>
                 </slot>
             </div>
-            
+
             <div id="collapse">
                 <slot name="collapse">
-                    <iron-icon icon="vaadin:vaadin:minus-circle"></iron-icon>       
+                    <svg class="icon" viewBox="0 0 16 16" aria-hidden="true">
+                        <path d="M8 0c-4.4 0-8 3.6-8 8s3.6 8 8 8 8-3.6 8-8-3.6-8-8-8zM13 9h-10v-2h10v2z"></path>
+                    </svg>
                 </slot>
             </div>
         </div>
         <div part="content" id="content">
-            <slot></slot>
+            <div id="sizer">
+                <slot></slot>
+            </div>
         </div>`;
     }
 
+    static get properties() {
+        return {
+            caption: {type: String},
+            tabSize: {type: Number},
+            tabVisible: {type: Boolean},
+            animationDuration: {type: Number},
+            animation: {type: String, reflect: true},
+            collapsedRendering: {type: String, reflect: true, attribute: "collapsed-rendering"},
+            vertical: {type: Boolean},
+            fixedContentSize: {type: Number},
+            toggleEnabled: {type: Boolean},
+            clientSideToggle: {type: Boolean},
+            closingOnOutsideClick: {type: Boolean},
+            autoSize: {type: Boolean},
+            reportMeasuredSize: {type: Boolean},
+            prefetchDelay: {type: Number},
+            prefetchToken: {type: Number},
+            dragResize: {type: Boolean, reflect: true, attribute: "drag-resize"},
+            // The state rendered by the server when the element was created, only read on the first update
+            expanded: {type: Boolean}
+        };
+    }
+
     constructor() {
         super();
-        this.outsideClickListener = this._onOutsideClick.bind(this);
+        this.tabSize = 40;
+        this.tabVisible = true;
+        this.animationDuration = 0;
+        this.animation = "size";
+        this.collapsedRendering = "visible";
+        this.fixedContentSize = -1;
+        this.toggleEnabled = true;
     }
 
-    expand(size, vertical) {
-        let content = this.$.content;
+    get _tab() {
+        return this.renderRoot.querySelector("#tab");
+    }
+
+    get _content() {
+        return this.renderRoot.querySelector("#content");
+    }
+
+    get _sizer() {
+        return this.renderRoot.querySelector("#sizer");
+    }
+
+    /**
+     * Expands the panel
+     *
+     * @param size          The size of the panel in pixels, or zero or less to calculate it from the content
+     * @param vertical      True if the slide opens in a vertical direction
+     * @param contentAdded  True if the content was added in the same round trip, and should be waited for before
+     *                      calculating the size
+     * @param options       The options for this transition only, or null to use the configured ones
+     * @param measuredSize  In auto size mode, the size last measured by the client as known to the server, used
+     *                      if the client has not measured the content since
+     */
+    expand(size, vertical, contentAdded, options, measuredSize) {
+        this._applyTransition(options);
+        this.classList.remove("collapsing");
+        this.classList.toggle("expanded", true);
+        updateOutsideClickListener(this);
+
+        this._whenRendered(() => {
+            if (size <= 0 && contentAdded) {
+                this._whenContentReady(() => {
+                    if (this.classList.contains("expanded")) {
+                        this._setSize(size, vertical, measuredSize);
+                        this._watchTransitionEnd(true);
+                    }
+                });
+            } else {
+                this._setSize(size, vertical, measuredSize);
+                this._watchTransitionEnd(true);
+            }
+        });
+    }
+
+    _setSize(size, vertical, measuredSize) {
+        let content = this._content;
+        // In auto size mode the size is known without reading the layout, once the content has been observed. The
+        // size cached by this client is more recent than the one the server passed back.
+        if (size <= 0 && this.autoSize) {
+            size = this._measuredSize !== undefined ? this._measuredSize : (measuredSize || 0);
+        }
         // Calculate the size if size is negative or zero
         if (size <= 0) {
             size = vertical ? content.scrollHeight : content.scrollWidth;
@@ -173,36 +353,347 @@ class SlideTab extends ThemableMixin(PolymerElement) {
         } else {
             content.style.width = size + "px";
         }
-
-        this.classList.toggle("expanded", true);
-        document.body.addEventListener("click", this.outsideClickListener);
     }
 
-    collapse(vertical) {
-        if (vertical) {
-            this.$.content.style.height = "0";
+    /**
+     * Calls the callback once the content is slotted, and has had a frame to render itself
+     *
+     * @param callback      The callback to call
+     * @private
+     */
+    _whenContentReady(callback) {
+        const slot = this._sizer.querySelector("slot");
+        if (slot.assignedNodes().length > 0) {
+            requestAnimationFrame(callback);
         } else {
-            this.$.content.style.width = "0";
+            slot.addEventListener("slotchange", () => requestAnimationFrame(callback), {once: true});
         }
+    }
 
+    /**
+     * Collapses the panel
+     *
+     * @param vertical      True if the slide opens in a vertical direction
+     * @param options       The options for this transition only, or null to use the configured ones
+     */
+    collapse(vertical, options) {
+        this._applyTransition(options);
+        if (this.classList.contains("expanded") || this.classList.contains("dragging")) {
+            this.classList.add("collapsing");
+        }
         this.classList.toggle("expanded", false);
-        document.body.removeEventListener("click", this.outsideClickListener);
+        updateOutsideClickListener(this);
+        this._watchTransitionEnd(false);
+
+        if (this.animation === "transform") {
+            // The host slides out of view, so the panel keeps its size
+            return;
+        }
+        this._whenRendered(() => {
+            if (vertical) {
+                this._content.style.height = "0";
+            } else {
+                this._content.style.width = "0";
+            }
+        });
+    }
+
+    /**
+     * Sets the duration and easing of the transition that is about to start, they are reset when it has ended
+     *
+     * @param options       The options for the transition, or null to use the configured ones
+     * @private
+     */
+    _applyTransition(options) {
+        let duration = this.animationDuration || 0;
+        if (options && options.animated === false) {
+            duration = 0;
+        } else if (options && options.duration !== undefined) {
+            duration = options.duration;
+        }
+        this._transitionDuration = duration;
+        this.style.setProperty("--slide-tab-animation-duration", duration + "ms");
+        if (options && options.easing) {
+            this.style.setProperty("--slide-tab-animation-easing", options.easing);
+        } else {
+            this.style.removeProperty("--slide-tab-animation-easing");
+        }
+    }
+
+    /**
+     * Dispatches a slide-transition-end event once the transition that has just started has ended
+     *
+     * @param expanded      True if the panel is expanding
+     * @private
+     */
+    _watchTransitionEnd(expanded) {
+        clearTimeout(this._transitionTimeout);
+        this._transitionExpanded = expanded;
+        this._transitionPending = true;
+        // transitionend does not fire if there is no transition, or if the size did not change
+        this._transitionTimeout = setTimeout(() => this._transitionEnded(), (this._transitionDuration || 0) + 100);
     }
 
-    _onOutsideClick(event) {
-        if (!this._isChildElement(event.target)) {
-            this.$server.onOutsideClicked();
+    _onTransitionEnd(event) {
+        const target = event.composedPath()[0];
+        if (target === this._content && (event.propertyName === "height" || event.propertyName === "width") ||
+            target === this && event.propertyName === "transform") {
+            this._transitionEnded();
         }
     }
 
-    _isChildElement(element) {
-        while (element != null) {
-            if (element == this) {
-                return true;
+    _transitionEnded() {
+        if (this._transitionPending) {
+            this._transitionPending = false;
+            clearTimeout(this._transitionTimeout);
+            this._applyTransition(null);
+            this.classList.remove("collapsing");
+            this.dispatchEvent(new CustomEvent("slide-transition-end", {
+                detail: {expanded: this._transitionExpanded}
+            }));
+        }
+    }
+
+    /**
+     * Expands or collapses the panel after a delay, and reports the new state to the server
+     *
+     * @param id            The id of the task, reported back to the server
+     * @param action        "expand", "collapse" or "toggle"
+     * @param animated      False if the transition should not be animated
+     * @param delay         The delay in milliseconds
+     */
+    schedule(id, action, animated, delay) {
+        this._scheduled = this._scheduled || new Map();
+        this._scheduled.set(id, setTimeout(() => {
+            this._scheduled.delete(id);
+            const expanded = this.classList.contains("expanded");
+            const expand = action === "toggle" ? !expanded : action === "expand";
+            if (expand !== expanded && this.toggleEnabled) {
+                const options = animated ? null : {animated: false};
+                if (expand) {
+                    this.expand(this.fixedContentSize, this.vertical, false, options);
+                } else {
+                    this.collapse(this.vertical, options);
+                }
             }
-            element = element.parentNode;
+            this.$server.onScheduledTaskFired(id, this.classList.contains("expanded"));
+        }, delay));
+    }
+
+    /**
+     * Cancels all tasks scheduled with schedule that have not fired yet
+     */
+    cancelScheduled() {
+        if (this._scheduled) {
+            this._scheduled.forEach(timeout => clearTimeout(timeout));
+            this._scheduled.clear();
+        }
+    }
+
+    /**
+     * Asks the server for the state coalesced within the current window once it has ended
+     *
+     * @param delay         The time in milliseconds until the window ends
+     */
+    requestCoalescedFlush(delay) {
+        clearTimeout(this._coalesceTimeout);
+        this._coalesceTimeout = setTimeout(() => this.$server.onCoalescingWindowEnd(), delay);
+    }
+
+    /**
+     * Lets the tab report intent for the current token again once the delay has passed. Called by the server when
+     * the prefetch budget refused the tab until a slot expires.
+     *
+     * @param delay         The time in milliseconds until a slot is freed
+     */
+    deferPrefetch(delay) {
+        clearTimeout(this._prefetchRetryTimeout);
+        this._prefetchRetryTimeout = setTimeout(() => this._prefetchReported = undefined, delay);
+    }
+
+    _onTabPointerEnter() {
+        if (!this.prefetchToken || this.prefetchToken === this._prefetchReported) {
+            return;
+        }
+        clearTimeout(this._prefetchTimeout);
+        this._prefetchTimeout = setTimeout(() => {
+            if (this.prefetchToken && !this.classList.contains("expanded")) {
+                // Reported once per token, the server changes the token when it wants to hear about intent again
+                this._prefetchReported = this.prefetchToken;
+                this.$server.onTabIntent();
+            }
+        }, this.prefetchDelay);
+    }
+
+    _onTabPointerLeave() {
+        clearTimeout(this._prefetchTimeout);
+    }
+
+    _onTabPointerDown(event) {
+        if (!this.dragResize || !this.toggleEnabled || this.animation === "transform" || event.button !== 0) {
+            return;
+        }
+        const position = this.vertical ? event.clientY : event.clientX;
+        const rect = this._content.getBoundingClientRect();
+        this._drag = {
+            pointerId: event.pointerId,
+            start: position,
+            startSize: this.vertical ? rect.height : rect.width,
+            position: position,
+            time: event.timeStamp,
+            // In pixels per millisecond, positive when opening
+            velocity: 0,
+            moved: false
+        };
+        this._tab.setPointerCapture(event.pointerId);
+        // A collapsed panel being dragged open has to render its content
+        this.classList.add("dragging");
+    }
+
+    _onTabPointerMove(event) {
+        const drag = this._drag;
+        if (!drag || event.pointerId !== drag.pointerId) {
+            return;
+        }
+        const position = this.vertical ? event.clientY : event.clientX;
+        const elapsed = event.timeStamp - drag.time;
+        if (elapsed > 0) {
+            drag.velocity = (position - drag.position) * this._dragDirection() / elapsed;
+        }
+        drag.position = position;
+        drag.time = event.timeStamp;
+
+        if (!drag.moved) {
+            if (Math.abs(position - drag.start) < 5) {
+                // Still a click
+                return;
+            }
+            drag.moved = true;
+            // The panel follows the pointer without a transition
+            this._applyTransition({animated: false});
+        }
+        // Pointer events can come faster than frames, only the latest position is rendered
+        if (!drag.frame) {
+            drag.frame = requestAnimationFrame(() => {
+                drag.frame = undefined;
+                const size = this._dragSize(drag) + "px";
+                if (this.vertical) {
+                    this._content.style.height = size;
+                } else {
+                    this._content.style.width = size;
+                }
+            });
+        }
+    }
+
+    _onTabPointerUp(event) {
+        const drag = this._drag;
+        if (!drag || event.pointerId !== drag.pointerId) {
+            return;
+        }
+        this._drag = undefined;
+        cancelAnimationFrame(drag.frame);
+        if (!drag.moved) {
+            this.classList.remove("dragging");
+            return;
+        }
+        // The click that follows the end of the drag should not toggle the panel
+        this._suppressClick = true;
+        setTimeout(() => this._suppressClick = false);
+
+        // A swipe settles fully open or closed in its direction, a slow drag where it was released
+        let size = this._dragSize(drag);
+        let expand;
+        if (Math.abs(drag.velocity) > 0.5) {
+            expand = drag.velocity > 0;
+            size = 0;
+        } else {
+            expand = size >= 24;
+        }
+        if (expand) {
+            this.expand(size > 0 ? size : this.fixedContentSize, this.vertical, false);
+        } else {
+            this.collapse(this.vertical);
+        }
+        // Removed once settled, a panel that was dragged open and closed again is collapsing by now
+        this.classList.remove("dragging");
+        this.$server.onDragged(expand, size);
+    }
+
+    _dragDirection() {
+        // The panel grows away from the edge it is attached to
+        return this.classList.contains("top") || this.classList.contains("left") ? 1 : -1;
+    }
+
+    _dragSize(drag) {
+        const size = drag.startSize + (drag.position - drag.start) * this._dragDirection();
+        return Math.round(Math.max(0, Math.min(size, this._getMaxSize(this.vertical))));
+    }
+
+    _onTabClick() {
+        clearTimeout(this._prefetchTimeout);
+        if (this._suppressClick) {
+            this._suppressClick = false;
+            return;
+        }
+        if (!this.clientSideToggle) {
+            this.$server.onTabClicked();
+        } else if (this.toggleEnabled) {
+            const expand = !this.classList.contains("expanded");
+            if (expand) {
+                this.expand(this.fixedContentSize, this.vertical, false);
+            } else {
+                this.collapse(this.vertical);
+            }
+            this.$server.onClientToggled(expand);
+        }
+    }
+
+    _updateResizeObserver() {
+        if (!this._rendered) {
+            // Called again when rendered
+            return;
+        }
+        if (this.autoSize && this.isConnected) {
+            resizeObserver.observe(this._sizer);
+        } else {
+            resizeObserver.unobserve(this._sizer);
+            this._measuredSize = undefined;
+        }
+    }
+
+    /**
+     * Called by the shared resize observer when the size of the content has changed. Caches the size, fits an
+     * expanded panel to it, and reports it to the server if requested.
+     *
+     * @param entry     The resize observer entry of the sizer element
+     * @private
+     */
+    _onContentResize(entry) {
+        if (this.collapsedRendering !== "visible" && !this.classList.contains("expanded")) {
+            // The content is not rendered, so its size is not known
+            return;
+        }
+        const box = entry.borderBoxSize && (entry.borderBoxSize[0] || entry.borderBoxSize);
+        let size;
+        if (box) {
+            size = this.vertical ? box.blockSize : box.inlineSize;
+        } else {
+            size = this.vertical ? entry.contentRect.height : entry.contentRect.width;
+        }
+        size = Math.min(Math.ceil(size), this._getMaxSize(this.vertical));
+        if (size === this._measuredSize) {
+            return;
+        }
+        this._measuredSize = size;
+
+        if (this.classList.contains("expanded") && !(this.fixedContentSize > 0)) {
+            this._setSize(size, this.vertical);
+        }
+        if (this.reportMeasuredSize) {
+            clearTimeout(this._reportSizeTimeout);
+            this._reportSizeTimeout = setTimeout(() => this.$server.onContentSizeMeasured(this._measuredSize), 200);
         }
-        return false;
     }
 
     /**
@@ -215,21 +706,72 @@ class SlideTab extends ThemableMixin(PolymerElement) {
      */
     _getMaxSize(vertical) {
         // Use the offsetHeight of the tab for both cases, as it's rotated for horizontal slides
-        return vertical ? document.body.scrollHeight - this.$.tab.offsetHeight :
-            document.body.scrollWidth - this.$.tab.offsetHeight;
+        return vertical ? document.body.scrollHeight - this._tab.offsetHeight :
+            document.body.scrollWidth - this._tab.offsetHeight;
     }
 
-
     connectedCallback() {
         super.connectedCallback();
-        if (this.classList.contains("expanded")) {
-            document.body.addEventListener("click", this.outsideClickListener);
-        }
+        updateOutsideClickListener(this);
+        this._updateResizeObserver();
     }
 
     disconnectedCallback() {
         super.disconnectedCallback();
-        document.body.removeEventListener("click", this.outsideClickListener);
+        // The server cancels the scheduled tasks of a detached tab, and flushes its coalesced state
+        this.cancelScheduled();
+        clearTimeout(this._coalesceTimeout);
+        clearTimeout(this._prefetchRetryTimeout);
+        updateOutsideClickListener(this);
+        this._updateResizeObserver();
+    }
+
+    firstUpdated() {
+        this._rendered = true;
+        // The content transition does not leave the shadow root, while the transform transition is on the host
+        const transitionEndListener = event => this._onTransitionEnd(event);
+        this.renderRoot.addEventListener("transitionend", transitionEndListener);
+        this.addEventListener("transitionend", transitionEndListener);
+
+        if (this.expanded) {
+            // Rendered before the first paint, so the panel does not open with an animation, and as nothing is
+            // animated there is no transition end to report either
+            this._applyTransition({animated: false});
+            this.classList.toggle("expanded", true);
+            updateOutsideClickListener(this);
+            this._setSize(this.fixedContentSize, this.vertical);
+            // Reading the layout applies the size before the configured duration is restored
+            this._content.getBoundingClientRect();
+            this._applyTransition(null);
+        }
+        this._updateResizeObserver();
+    }
+
+    updated(changedProperties) {
+        // A running transition may have options of its own, the configured duration is applied when it ends
+        if (changedProperties.has("animationDuration") && !this._transitionPending) {
+            this.style.setProperty("--slide-tab-animation-duration", this.animationDuration + "ms");
+        }
+        if (changedProperties.has("closingOnOutsideClick")) {
+            updateOutsideClickListener(this);
+        }
+        if (changedProperties.has("autoSize")) {
+            this._updateResizeObserver();
+        }
+    }
+
+    /**
+     * Calls the callback once the shadow DOM has been rendered
+     *
+     * @param callback      The callback to call
+     * @private
+     */
+    _whenRendered(callback) {
+        if (this._rendered) {
+            callback();
+        } else {
+            this.updateComplete.then(callback);
+        }
     }
 }
 
@@ -16,7 +16,7 @@ import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.router.Route;
 
 @CssImport("./styles/demo-styles.css")
-@CssImport(value = "./styles/demo-slide-tab-styles.css", themeFor = "slide-tab")
+@CssImport("./styles/demo-slide-tab-styles.css")
 @Route("")
 public class DemoView extends Div {
 
@@ -128,12 +128,15 @@ public class DemoView extends Div {
     }
 
     private SlideTab createRightPanelGridTab() {
+        // The grid is only created when the tab is expanded for the first time
+        return SlideTabBuilder.lazy(this::createGridContent, "Grid")
+                .mode(SlideMode.RIGHT).tabPosition(SlideTabPosition.BEGINNING).build();
+    }
+
+    private Div createGridContent() {
         Div content = new Div();
         content.setId("right-panel-bottom-content");
 
-        SlideTab slideTab = new SlideTabBuilder(content, "Grid")
-                .mode(SlideMode.RIGHT).tabPosition(SlideTabPosition.BEGINNING).build();
-
         Grid<Test> testGrid = new Grid<>(Test.class);
         testGrid.setItems(Arrays.asList(
                 new Test("Aaaa", "Aaaaaaaa", "aaa@aaa.com", 0),
@@ -148,7 +151,7 @@ public class DemoView extends Div {
 
         content.add(testGrid);
 
-        return slideTab;
+        return content;
     }
 
     private SlideTab createOuterTab() {